@@ -1,7 +1,7 @@
 // blog-frontend/src/api/commentService.ts
 // 评论相关的API服务
 import axios from 'axios'
-import type { Comment, CreateCommentDTO, CommentListResponse, CommentResponse, LikeResponse } from '@/types/comment'
+import type { Comment, CreateCommentDTO, CommentListResponse, CommentPageResponse, CommentResponse, LikeResponse } from '@/types/comment'
 
 // 创建axios实例
 const api = axios.create({
@@ -57,6 +57,54 @@ export const getCommentsByArticleId = async (articleId: string): Promise<Comment
   }
 }
 
+/**
+ * 游标分页获取文章的顶级评论，每条评论附带最早的几条回复
+ * @param articleId 文章ID
+ * @param cursor 上一页返回的游标，为空表示第一页
+ * @param size 每页大小
+ * @returns 评论分页
+ */
+export const getCommentThreads = async (
+  articleId: string,
+  cursor?: string | null,
+  size = 10
+): Promise<CommentPageResponse> => {
+  try {
+    const response = await api.get(`/comments/article/${articleId}/threads`, {
+      params: { cursor: cursor || undefined, size }
+    })
+    return response as unknown as CommentPageResponse
+  } catch (error) {
+    console.error('获取文章评论失败:', error)
+    throw error
+  }
+}
+
+/**
+ * 游标分页获取评论的回复
+ * @param articleId 文章ID
+ * @param commentId 评论ID
+ * @param cursor 上一页或评论返回的游标，为空表示从第一条回复开始
+ * @param size 每页大小
+ * @returns 回复分页
+ */
+export const getCommentReplies = async (
+  articleId: string,
+  commentId: string,
+  cursor?: string | null,
+  size = 10
+): Promise<CommentPageResponse> => {
+  try {
+    const response = await api.get(`/comments/article/${articleId}/threads/${commentId}/replies`, {
+      params: { cursor: cursor || undefined, size }
+    })
+    return response as unknown as CommentPageResponse
+  } catch (error) {
+    console.error('获取评论回复失败:', error)
+    throw error
+  }
+}
+
 /**
  * 创建评论
  * @param comment 创建评论的数据
@@ -4,7 +4,8 @@ import { ref } from 'vue'
 import type { Ref } from 'vue'
 import type { Comment, CreateCommentDTO } from '@/types/comment'
 import {
-  getCommentsByArticleId,
+  getCommentThreads,
+  getCommentReplies,
   createComment as createCommentApi,
   deleteComment as deleteCommentApi,
   likeComment as likeCommentApi,
@@ -18,10 +19,23 @@ export const useComments = () => {
   const loading = ref(false)
   const error = ref<string | null>(null)
   const submitting = ref(false)
+  // 顶级评论的分页状态
+  const nextCursor = ref<string | null>(null)
+  const hasMore = ref(false)
+  const loadingMore = ref(false)
   const authStore = useAuthStore()
   const router = useRouter()
 
-  // 获取文章评论列表
+  // 处理评论数据，确保replies数组存在
+  const processComments = (commentList: Comment[] | undefined): Comment[] => {
+    if (!commentList) return []
+    return commentList.map(comment => ({
+      ...comment,
+      replies: comment.replies ? processComments(comment.replies) : []
+    }))
+  }
+
+  // 获取文章评论列表（第一页）
   const fetchComments = async (articleId: string) => {
     // 检查articleId是否为空
     if (!articleId || articleId.trim() === '') {
@@ -33,17 +47,11 @@ export const useComments = () => {
     loading.value = true
     error.value = null
     try {
-      const response = await getCommentsByArticleId(articleId)
+      const response = await getCommentThreads(articleId)
       if (response.code === 200) {
-        // 处理评论数据，确保replies数组存在
-        const processComments = (commentList: Comment[] | undefined): Comment[] => {
-          if (!commentList) return []
-          return commentList.map(comment => ({
-            ...comment,
-            replies: comment.replies ? processComments(comment.replies) : []
-          }))
-        }
-        comments.value = processComments(response.data || [])
+        comments.value = processComments(response.data?.items)
+        nextCursor.value = response.data?.nextCursor ?? null
+        hasMore.value = !!response.data?.hasMore
         return { success: true, data: comments.value }
       } else {
         error.value = response.message || '获取评论列表失败'
@@ -58,6 +66,48 @@ export const useComments = () => {
     }
   }
 
+  // 加载下一页顶级评论
+  const loadMoreComments = async (articleId: string) => {
+    if (!hasMore.value || loadingMore.value) {
+      return { success: false }
+    }
+    loadingMore.value = true
+    try {
+      const response = await getCommentThreads(articleId, nextCursor.value)
+      if (response.code === 200) {
+        comments.value.push(...processComments(response.data?.items))
+        nextCursor.value = response.data?.nextCursor ?? null
+        hasMore.value = !!response.data?.hasMore
+        return { success: true }
+      }
+      return { success: false, error: response.message || '获取评论列表失败' }
+    } catch (err: any) {
+      console.error('Failed to load more comments:', err)
+      return { success: false, error: err.message || '获取评论列表失败' }
+    } finally {
+      loadingMore.value = false
+    }
+  }
+
+  // 加载评论的更多回复，从已加载的最后一条回复之后继续
+  const loadMoreReplies = async (articleId: string, comment: Comment) => {
+    try {
+      const response = await getCommentReplies(articleId, comment.id, comment.repliesCursor)
+      if (response.code === 200) {
+        // 刚发表的回复可能已在列表中，按ID去重
+        const loadedIds = new Set((comment.replies || []).map(reply => reply.id))
+        const fetched = processComments(response.data?.items).filter(reply => !loadedIds.has(reply.id))
+        comment.replies = [...(comment.replies || []), ...fetched]
+        comment.repliesCursor = response.data?.nextCursor ?? null
+        return { success: true }
+      }
+      return { success: false, error: response.message || '获取回复失败' }
+    } catch (err: any) {
+      console.error('Failed to load replies:', err)
+      return { success: false, error: err.message || '获取回复失败' }
+    }
+  }
+
   // 创建评论
   const createComment = async (commentData: CreateCommentDTO) => {
     // 检查内容是否为空
@@ -85,6 +135,7 @@ export const useComments = () => {
                   commentList[i].replies = []
                 }
                 commentList[i].replies!.push(response.data)
+                commentList[i].replyCount = (commentList[i].replyCount || 0) + 1
                 return true
               }
               if (commentList[i].replies && findAndAddReply(commentList[i].replies || [])) {
@@ -142,6 +193,7 @@ export const useComments = () => {
                 commentList[i].replies = commentList[i].replies!.filter(
                   reply => reply.id !== commentId
                 )
+                commentList[i].replyCount = Math.max(0, (commentList[i].replyCount || 0) - 1)
                 return true
               }
               if (commentList[i].replies && findAndRemoveReply(commentList[i].replies || [])) {
@@ -235,7 +287,11 @@ export const useComments = () => {
     loading,
     error,
     submitting,
+    hasMore,
+    loadingMore,
     fetchComments,
+    loadMoreComments,
+    loadMoreReplies,
     createComment,
     deleteComment,
     toggleCommentLike,
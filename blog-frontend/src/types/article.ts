@@ -1,7 +1,8 @@
 export interface Article {
   id: string
   title: string
-  content: string
+  content?: string  // 列表接口不返回正文，只返回摘要
+  excerpt?: string  // 正文前200个字符
   author: string
   createTime: string
   updateTime: string
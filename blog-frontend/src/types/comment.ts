@@ -6,14 +6,21 @@
  */
 export interface Comment {
   id: string;
-  content: string;
-  author: string;
+  // 已删除的占位评论没有内容和作者
+  content: string | null;
+  author: string | null;
   authorEmail?: string;
   createTime: string;
   updateTime?: string;
   articleId: string;
   parentId?: string;
   replies?: Comment[];
+  // 直接回复总数，可能多于 replies 中返回的数量
+  replyCount?: number;
+  // 是否为已删除评论的占位节点
+  deleted?: boolean;
+  // 继续加载回复的游标
+  repliesCursor?: string | null;
   likeCount: number;
   isLiked?: boolean;
 }
@@ -38,6 +45,24 @@ export interface CommentListResponse {
   data: Comment[];
 }
 
+/**
+ * 评论游标分页数据
+ */
+export interface CommentPage {
+  items: Comment[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+/**
+ * 评论分页响应结构
+ */
+export interface CommentPageResponse {
+  code: number;
+  message: string;
+  data: CommentPage;
+}
+
 /**
  * 单条评论响应结构
  */
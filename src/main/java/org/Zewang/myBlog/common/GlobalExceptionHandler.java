@@ -3,6 +3,7 @@ package org.Zewang.myBlog.common;
 import org.Zewang.myBlog.common.exception.AuthenticationException;
 import org.Zewang.myBlog.common.exception.BaseException;
 import org.Zewang.myBlog.common.exception.BusinessException;
+import org.Zewang.myBlog.common.exception.TooManyRequestsException;
 import org.Zewang.myBlog.common.exception.ValidationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -12,6 +13,7 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -89,6 +91,16 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(e.getCode(), e.getMessage());
     }
 
+    /**
+     * 处理请求过多异常，返回 HTTP 429，提示客户端稍后重试
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ApiResponse<?> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.warn("请求过多：{}", e.getMessage());
+        return ApiResponse.error(e.getCode(), e.getMessage());
+    }
+
     /**
      * 处理基础异常（捕获所有自定义异常）
      */
@@ -0,0 +1,19 @@
+package org.Zewang.myBlog.common.exception;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 请求过多异常，服务端主动拒绝超出处理能力的请求，客户端应稍后重试
+ * @email "Zewang0217@outlook.com"
+ */
+public class TooManyRequestsException extends BaseException {
+    private static final int DEFAULT_CODE = 429; // 默认状态码：Too Many Requests
+
+    /**
+     * 构造方法
+     * @param message 错误消息
+     */
+    public TooManyRequestsException(String message) {
+        super(DEFAULT_CODE, message);
+    }
+}
@@ -0,0 +1,40 @@
+package org.Zewang.myBlog.common.pagination;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 游标分页结果
+ * @email "Zewang0217@outlook.com"
+ */
+@Schema(description = "游标分页结果")
+public record CursorPage<T>(
+    @Schema(description = "当前页数据")
+    List<T> items,
+
+    @Schema(description = "下一页游标，没有更多数据时为 null")
+    String nextCursor,
+
+    @Schema(description = "是否还有更多数据")
+    boolean hasMore
+) {
+    /**
+     * 由多查询一条的结果构造分页：查询 size + 1 条，多出的一条只用来判断是否还有下一页
+     * @param rows 查询结果，最多 size + 1 条
+     * @param size 每页大小
+     * @param cursorOf 根据最后一条记录生成游标
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+}
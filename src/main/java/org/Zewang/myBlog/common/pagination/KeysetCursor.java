@@ -0,0 +1,44 @@
+package org.Zewang.myBlog.common.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.Zewang.myBlog.common.exception.ValidationException;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 键集分页游标，记录上一页最后一条记录的 (时间, ID)
+ *               下一页只需查询“排在它之后”的记录，分页成本与翻到第几页无关
+ * @email "Zewang0217@outlook.com"
+ */
+public record KeysetCursor(LocalDateTime time, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 编码为 URL 安全的字符串，供前端原样传回
+     */
+    public String encode() {
+        String raw = time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     * @param cursor 游标字符串，为空表示第一页
+     * @return 游标对象，为空时返回 null
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.indexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, index)), raw.substring(index + 1));
+        } catch (RuntimeException e) {
+            throw new ValidationException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.Zewang.myBlog.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 无锁令牌桶
+ *               不单独记录剩余令牌数，只用一个 AtomicLong 保存“令牌被取空后重新装满的时刻”，
+ *               该时刻与当前时间之差即为已欠下的令牌；每次取令牌只需一次 CAS
+ * @email "Zewang0217@outlook.com"
+ */
+public final class TokenBucket {
+
+    private final long capacityNanos;   // 容量对应的补充时长
+    private final long nanosPerToken;   // 补充一个令牌所需的时长
+
+    // 桶重新装满的时刻（System.nanoTime），早于当前时间表示桶是满的
+    private final AtomicLong fullAt;
+
+    /**
+     * @param capacity 桶容量，即允许的突发量
+     * @param nanosPerToken 补充一个令牌所需的纳秒数
+     * @param now 当前时间（纳秒），新建的桶是满的
+     */
+    public TokenBucket(long capacity, long nanosPerToken, long now) {
+        this.capacityNanos = capacity * nanosPerToken;
+        this.nanosPerToken = nanosPerToken;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * 尝试取出 cost 个令牌，令牌不足时不扣减
+     * @param cost 令牌数
+     * @param now 当前时间（纳秒）
+     * @return 0 表示成功；否则为还需等待的纳秒数
+     */
+    public long tryConsume(long cost, long now) {
+        long required = cost * nanosPerToken;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + required;
+            long overdraft = next - now - capacityNanos;
+            if (overdraft > 0) {
+                return overdraft;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
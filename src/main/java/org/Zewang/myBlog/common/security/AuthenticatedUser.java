@@ -0,0 +1,25 @@
+package org.Zewang.myBlog.common.security;
+
+import java.util.List;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 已认证的当前用户，由 JwtAuthenticationFilter 放入安全上下文
+ *               控制器可通过 @AuthenticationPrincipal 直接获取用户ID，getName() 仍返回用户名
+ * @email "Zewang0217@outlook.com"
+ */
+public record AuthenticatedUser(String id, String username, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return role == null ? List.of() : List.of(new SimpleGrantedAuthority(role));
+    }
+}
@@ -0,0 +1,34 @@
+package org.Zewang.myBlog.common.security;
+
+import io.jsonwebtoken.Claims;
+import java.time.Instant;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 已验证令牌中认证需要的声明，不可变，可以在缓存中被多个请求共享
+ * @email "Zewang0217@outlook.com"
+ */
+public record TokenClaims(String subject, String userId, String role, Integer tokenVersion, Instant expiresAt) {
+
+    /**
+     * 从解析出的 Claims 中复制需要的声明
+     * @param claims 已验证签名的 Claims
+     * @param userIdClaim 用户ID的声明名
+     * @param roleClaim 角色的声明名
+     * @param tokenVersionClaim 令牌版本的声明名
+     * @return 令牌声明
+     */
+    public static TokenClaims of(Claims claims, String userIdClaim, String roleClaim, String tokenVersionClaim) {
+        return new TokenClaims(
+            claims.getSubject(),
+            claims.get(userIdClaim, String.class),
+            claims.get(roleClaim, String.class),
+            claims.get(tokenVersionClaim, Integer.class),
+            claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
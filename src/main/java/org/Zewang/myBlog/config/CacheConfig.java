@@ -0,0 +1,66 @@
+package org.Zewang.myBlog.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 本地缓存配置，基于 Caffeine 提供有容量和过期上限的进程内缓存
+ * @email "Zewang0217@outlook.com"
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * 文章详情缓存，key 为文章ID
+     */
+    public static final String ARTICLES = "articles";
+
+    /**
+     * 文章列表缓存，key 为 'all'（全部文章）或 'published'（已发布文章）
+     */
+    public static final String ARTICLE_LISTS = "articleLists";
+
+    /**
+     * 文章评论树缓存，key 由 CommentThreadCache 生成（文章ID + 版本号 + 视图）
+     */
+    public static final String COMMENT_THREADS = "commentThreads";
+
+    /**
+     * 认证用的用户信息缓存，key 为用户名，由 UserServiceImpl 读写和清除
+     */
+    public static final String USER_DETAILS = "userDetails";
+
+    // Caffeine 规格字符串，recordStats 用于统计命中率
+    @Value("${blog.cache.articles.spec:maximumSize=1000,expireAfterWrite=30m,recordStats}")
+    private String articlesSpec;
+
+    @Value("${blog.cache.article-lists.spec:maximumSize=16,expireAfterWrite=5m,recordStats}")
+    private String articleListsSpec;
+
+    @Value("${blog.cache.comment-threads.spec:maximumSize=500,expireAfterWrite=30m,recordStats}")
+    private String commentThreadsSpec;
+
+    @Value("${blog.cache.user-details.spec:maximumSize=1000,expireAfterWrite=5m,recordStats}")
+    private String userDetailsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // 只允许使用显式注册的缓存，避免拼写错误时悄悄创建无界缓存
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(ARTICLES, Caffeine.from(articlesSpec).build());
+        cacheManager.registerCustomCache(ARTICLE_LISTS, Caffeine.from(articleListsSpec).build());
+        cacheManager.registerCustomCache(COMMENT_THREADS, Caffeine.from(commentThreadsSpec).build());
+        cacheManager.registerCustomCache(USER_DETAILS, Caffeine.from(userDetailsSpec).build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,93 @@
+package org.Zewang.myBlog.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.Zewang.myBlog.config.datasource.ReadWriteRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: SQLite 数据源配置
+ *               数据库使用 WAL 日志模式，读写互不阻塞；写连接池只有一个连接，所有写操作在应用内排队，
+ *               不会因多个连接争抢写锁而出现 SQLITE_BUSY；只读访问使用多连接的只读连接池（query_only）。
+ *               两个连接池分别限制同时访问的请求数（见 {@link ReadWriteRoutingDataSource}），
+ *               开启虚拟线程后请求线程数不再受 Tomcat 线程池限制，需要由这里控制压到 SQLite 上的并发
+ * @email "Zewang0217@outlook.com"
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${blog.sqlite.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${blog.sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMillis;
+
+    // 负数表示 KiB，每个连接独立计算
+    @Value("${blog.sqlite.cache-size:-8000}")
+    private int cacheSize;
+
+    @Value("${blog.sqlite.mmap-size:268435456}")
+    private long mmapSize;
+
+    @Value("${blog.sqlite.read-pool-size:4}")
+    private int readPoolSize;
+
+    @Value("${blog.datasource.write-max-concurrency:1}")
+    private int writeMaxConcurrency;
+
+    @Value("${blog.datasource.read-max-concurrency:4}")
+    private int readMaxConcurrency;
+
+    @Value("${blog.datasource.acquire-timeout-ms:10000}")
+    private long acquireTimeoutMillis;
+
+    /**
+     * 读写连接池，容器关闭时关闭两个连接池
+     */
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties properties) {
+        // 先建写连接池，由它把数据库切换到 WAL（日志模式记录在数据库文件中，只读连接无需再设置）
+        HikariConfig writer = baseConfig(properties, "sqlite-writer", 1);
+        writer.addDataSourceProperty("journal_mode", "WAL");
+        // 写事务开始时即获取写锁，与其他进程争用时在 BEGIN 处按 busy_timeout 等待，而不是在提交时失败
+        writer.addDataSourceProperty("transaction_mode", "IMMEDIATE");
+        HikariDataSource writerPool = new HikariDataSource(writer);
+
+        HikariConfig reader = baseConfig(properties, "sqlite-reader", readPoolSize);
+        reader.setConnectionInitSql("PRAGMA query_only = 1");
+        return new ReadWriteRoutingDataSource(writerPool, new HikariDataSource(reader),
+            writeMaxConcurrency, readMaxConcurrency, acquireTimeoutMillis);
+    }
+
+    /**
+     * 应用使用的数据源：延迟到执行第一条语句时才按事务是否只读选择连接池
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariConfig baseConfig(DataSourceProperties properties, String poolName, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(properties.determineUrl());
+        config.setDriverClassName(properties.determineDriverClassName());
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        // 连接属性由 sqlite-jdbc 在打开连接时转换为对应的 PRAGMA
+        config.addDataSourceProperty("synchronous", synchronous);
+        config.addDataSourceProperty("busy_timeout", String.valueOf(busyTimeoutMillis));
+        config.addDataSourceProperty("cache_size", String.valueOf(cacheSize));
+        config.addDataSourceProperty("mmap_size", String.valueOf(mmapSize));
+        return config;
+    }
+}
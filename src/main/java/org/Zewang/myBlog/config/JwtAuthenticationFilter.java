@@ -13,13 +13,17 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.Zewang.myBlog.common.security.AuthenticatedUser;
+import org.Zewang.myBlog.common.security.TokenClaims;
+import org.Zewang.myBlog.service.user.UserService;
+import org.Zewang.myBlog.service.user.token.TokenVersionRegistry;
 import org.Zewang.myBlog.util.JwtUtil;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -30,11 +34,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    // 为 true 时直接信任令牌中签名的用户ID和角色，不再查询用户；为 false 时每次按用户名加载用户
+    @Value("${jwt.stateless-claims:true}")
+    private boolean statelessClaims;
+
     // 延迟初始化，避免循环依赖
-    private final ObjectProvider<UserDetailsService> userDetailsService;
+    private final ObjectProvider<UserService> userService;
 
-    public JwtAuthenticationFilter(ObjectProvider<UserDetailsService> userDetailsService) {
-        this.userDetailsService = userDetailsService;
+    public JwtAuthenticationFilter(ObjectProvider<UserService> userService) {
+        this.userService = userService;
     }
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -46,26 +57,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             String jwt = authorizationHeader.substring(7); // 提取令牌
-            String username = null;
+            TokenClaims claims = null;
 
             try {
-                username = jwtUtil.extractUsername(jwt); // 获取用户名
+                claims = jwtUtil.parseToken(jwt); // 验证令牌（签名、过期时间），已验证过的令牌直接命中缓存
             } catch (Exception e) {
                 // JWT解析异常
             }
 
             // 如果用户名存在且当前没有认证信息
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.getObject().loadUserByUsername(username);
+            if (claims != null && claims.subject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+                AuthenticatedUser user = resolveUser(claims);
 
-                // 验证令牌有效性
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (user != null) {
                     // 创建认证令牌并设置到安全上下文中
                     UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(user, null, user.authorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -74,4 +82,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response); // 继续处理请求
     }
+
+    /**
+     * 根据已验证的令牌确定当前用户
+     * 携带用户ID的令牌先检查令牌版本，已失效的令牌不认证；
+     * 无状态模式下直接使用令牌中的用户ID和角色，否则（或旧令牌没有用户ID时）按用户名加载用户
+     */
+    private AuthenticatedUser resolveUser(TokenClaims claims) {
+        String userId = claims.userId();
+        if (userId != null && !tokenVersionRegistry.isCurrent(userId, claims.tokenVersion())) {
+            return null;
+        }
+        if (statelessClaims && userId != null) {
+            return new AuthenticatedUser(userId, claims.subject(), claims.role());
+        }
+        try {
+            return userService.getObject().loadAuthenticatedUser(claims.subject());
+        } catch (UsernameNotFoundException e) {
+            return null; // 用户已被删除
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package org.Zewang.myBlog.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 虚拟线程固定（pinning）审计
+ *               开启虚拟线程时，通过 JFR 监听 jdk.VirtualThreadPinned 事件：虚拟线程在 synchronized 块或
+ *               本地方法中阻塞时无法让出载体线程，超过阈值即记录一次；按阻塞位置统计次数，
+ *               每个位置第一次出现时输出带调用栈的警告日志
+ * @email "Zewang0217@outlook.com"
+ */
+@Component
+public class PinnedThreadMonitor {
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // 统计的阻塞位置数上限，超出后只累计总次数
+    private static final int MAX_SITES = 100;
+
+    // 日志中输出的调用栈深度
+    private static final int LOGGED_FRAMES = 12;
+
+    private final boolean enabled;
+    private final Duration threshold;
+
+    private final LongAdder pinnedCount = new LongAdder();
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(
+        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+        @Value("${blog.virtual-threads.pinning-audit.enabled:true}") boolean auditEnabled,
+        @Value("${blog.virtual-threads.pinning-audit.threshold-ms:20}") long thresholdMillis) {
+        this.enabled = virtualThreads && auditEnabled;
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::record);
+            stream.startAsync();
+            log.info("虚拟线程固定审计已开启，阈值：{}ms", threshold.toMillis());
+        } catch (Exception e) {
+            // 运行时不支持 JFR 时不影响启动
+            log.warn("无法开启虚拟线程固定审计：{}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * 获取固定统计
+     * @return 是否开启、累计次数，以及各阻塞位置的次数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        sites.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+            .forEach(entry -> counts.put(entry.getKey(), entry.getValue().sum()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", stream != null);
+        stats.put("thresholdMillis", threshold.toMillis());
+        stats.put("pinnedCount", pinnedCount.sum());
+        stats.put("sites", counts);
+        return stats;
+    }
+
+    private void record(RecordedEvent event) {
+        pinnedCount.increment();
+        String site = site(event);
+        LongAdder count = sites.get(site);
+        if (count == null && sites.size() < MAX_SITES) {
+            count = sites.computeIfAbsent(site, key -> {
+                log.warn("虚拟线程被固定 {}ms，位置：{}\n{}", event.getDuration().toMillis(), key, stackTrace(event));
+                return new LongAdder();
+            });
+        }
+        if (count != null) {
+            count.increment();
+        }
+    }
+
+    /**
+     * 阻塞位置取调用栈中第一个项目自身的方法，没有时取栈顶
+     */
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame top = null;
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (top == null) {
+                top = frame;
+            }
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith("org.Zewang.myBlog.")) {
+                return describe(frame);
+            }
+        }
+        return describe(top);
+    }
+
+    private static String stackTrace(RecordedEvent event) {
+        StringBuilder trace = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            event.getStackTrace().getFrames().stream().limit(LOGGED_FRAMES)
+                .forEach(frame -> trace.append("\tat ").append(describe(frame)).append('\n'));
+        }
+        return trace.toString();
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+            + ":" + frame.getLineNumber();
+    }
+}
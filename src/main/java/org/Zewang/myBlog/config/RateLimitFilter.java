@@ -0,0 +1,166 @@
+// src/main/java/org/Zewang/myBlog/config/RateLimitFilter.java
+package org.Zewang.myBlog.config;
+
+// 限流过滤器
+// 作用：
+//     ·在 JWT 认证之后执行，已登录用户按用户ID限流，匿名请求按客户端IP限流
+//     ·每个请求按路由权重扣除令牌，登录、注册、搜索等开销大的接口扣得更多
+//     ·令牌不足时直接返回 429，不再进入控制器
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.Zewang.myBlog.common.ApiResponse;
+import org.Zewang.myBlog.common.ratelimit.TokenBucket;
+import org.Zewang.myBlog.common.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String REJECTED_MESSAGE = "请求过于频繁，请稍后重试";
+
+    private final boolean enabled;
+    private final long capacity;
+    private final long nanosPerToken;
+    private final List<RouteCost> routeCosts;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // 客户端 -> 令牌桶；闲置超过装满一桶所需的时间后移除，此时桶已是满的，移除不影响限流结果
+    private final Cache<String, TokenBucket> buckets;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * 路由权重，method 为空表示不限请求方法
+     */
+    private record RouteCost(String method, String pattern, long cost) {
+    }
+
+    public RateLimitFilter(
+        @Value("${blog.rate-limit.enabled:true}") boolean enabled,
+        @Value("${blog.rate-limit.capacity:60}") long capacity,
+        @Value("${blog.rate-limit.refill-per-second:20}") long refillPerSecond,
+        @Value("${blog.rate-limit.max-clients:10000}") long maxClients,
+        @Value("${blog.rate-limit.route-costs:}") List<String> routeCosts,
+        ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / refillPerSecond;
+        this.routeCosts = parseRouteCosts(routeCosts, capacity);
+        this.objectMapper = objectMapper;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofNanos(capacity * nanosPerToken))
+            .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(clientKey(request), key -> new TokenBucket(capacity, nanosPerToken, now));
+        long waitNanos = bucket.tryConsume(costOf(request), now);
+        if (waitNanos > 0) {
+            rejectedCount.increment();
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 获取限流统计
+     * @return 当前跟踪的客户端数和累计拒绝次数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clients", buckets.estimatedSize());
+        stats.put("rejectedCount", rejectedCount.sum());
+        return stats;
+    }
+
+    /**
+     * 已认证的请求按用户ID限流，同一用户换IP也共用一个桶；匿名请求按IP限流
+     * 使用 getRemoteAddr()，部署在反向代理之后时需开启 server.forward-headers-strategy
+     */
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + user.id();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private long costOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RouteCost route : routeCosts) {
+            if ((route.method() == null || route.method().equalsIgnoreCase(request.getMethod()))
+                && pathMatcher.match(route.pattern(), path)) {
+                return route.cost();
+            }
+        }
+        return 1;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(),
+            ApiResponse.error(HttpStatus.TOO_MANY_REQUESTS.value(), REJECTED_MESSAGE));
+    }
+
+    /**
+     * 解析路由权重配置，每项格式为 "[METHOD] pattern=cost"，按配置顺序匹配
+     */
+    private static List<RouteCost> parseRouteCosts(List<String> entries, long capacity) {
+        List<RouteCost> routes = new ArrayList<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.lastIndexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("限流路由权重格式错误：" + entry);
+            }
+            String[] route = entry.substring(0, eq).trim().split("\\s+", 2);
+            long cost = Long.parseLong(entry.substring(eq + 1).trim());
+            if (cost < 1 || cost > capacity) {
+                throw new IllegalArgumentException("限流路由权重必须在 1 到桶容量之间：" + entry);
+            }
+            routes.add(route.length == 2
+                ? new RouteCost(route[0], route[1], cost)
+                : new RouteCost(null, route[0], cost));
+        }
+        return routes;
+    }
+}
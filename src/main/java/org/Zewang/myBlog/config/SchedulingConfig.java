@@ -0,0 +1,15 @@
+package org.Zewang.myBlog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 定时任务配置
+ * @email "Zewang0217@outlook.com"
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
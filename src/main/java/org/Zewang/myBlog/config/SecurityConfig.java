@@ -1,8 +1,12 @@
 package org.Zewang.myBlog.config;
 
+import org.Zewang.myBlog.common.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -10,8 +14,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
@@ -20,9 +24,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -35,8 +41,10 @@ public class SecurityConfig {
                 .requestMatchers("/").permitAll()
                 .requestMatchers("/test").permitAll()
                 .requestMatchers("/api/article/published").permitAll()
+                .requestMatchers("/api/article/published/cursor").permitAll()
                 .requestMatchers("/api/article/{id}").permitAll()
                 .requestMatchers("/api/article/list").permitAll()
+                .requestMatchers("/api/article/list/cursor").permitAll()
                 .requestMatchers("/api/user/register").permitAll()
                 .requestMatchers("/swagger-ui/index.html").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
@@ -49,20 +57,41 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/category").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/comments/article/**").permitAll()
                 .anyRequest().authenticated()
-            );
+            )
+            // 令牌无效、版本已失效或用户已删除时过滤器不设置认证信息，统一返回 401 而不是默认的 403
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
 
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class); // 认证之后限流，已登录用户按用户ID计数
 
         return http.build();
     }
 
+    /**
+     * 限流过滤器只在安全过滤器链中执行，不再作为普通 Servlet 过滤器重复注册
+     * （否则会在认证之前先执行，所有请求都按IP计数）
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * 密码编码器：BCrypt 计算在独立的有界线程池中执行，队列满或等待超时时拒绝请求
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+        @Value("${blog.password-hash.threads:1}") int threads,
+        @Value("${blog.password-hash.queue-capacity:16}") int queueCapacity,
+        @Value("${blog.password-hash.timeout-ms:5000}") long timeoutMillis) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, timeoutMillis);
     }
 }
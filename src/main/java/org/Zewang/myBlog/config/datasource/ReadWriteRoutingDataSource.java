@@ -0,0 +1,107 @@
+package org.Zewang.myBlog.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 读写分离的 SQLite 数据源
+ *               读写事务使用单连接的写连接池；只读事务（@Transactional(readOnly = true)）和事务外的访问
+ *               （如 open-in-view 下的延迟加载）使用多连接的只读连接池，事务外的写操作会因 query_only 而失败。
+ *               两个连接池各自用 {@link ConcurrencyLimitingDataSource} 限制并发，排队等写连接的请求不会占用读连接的许可。
+ *               容器初始化完成前（Hibernate 建表等）事务外的访问仍使用写连接池。
+ *               需由 LazyConnectionDataSourceProxy 包装，等事务的只读标记设置后、执行第一条语句时再选择连接池
+ * @email "Zewang0217@outlook.com"
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource
+    implements SmartInitializingSingleton, AutoCloseable {
+
+    private static final String WRITE = "write";
+    private static final String READ = "read";
+
+    private final HikariDataSource writer;
+    private final HikariDataSource reader;
+    private final DataSource writeTarget;
+    private final DataSource readTarget;
+    private volatile boolean started;
+
+    /**
+     * @param writer 写连接池
+     * @param reader 只读连接池
+     * @param writeConcurrency 同时使用写连接池的请求数上限，0 表示不限制
+     * @param readConcurrency 同时使用只读连接池的请求数上限，0 表示不限制
+     * @param acquireTimeoutMillis 等待许可的最长时间（毫秒）
+     */
+    public ReadWriteRoutingDataSource(HikariDataSource writer, HikariDataSource reader,
+                                      int writeConcurrency, int readConcurrency, long acquireTimeoutMillis) {
+        this.writer = writer;
+        this.reader = reader;
+        this.writeTarget = limit(writer, writeConcurrency, acquireTimeoutMillis);
+        this.readTarget = limit(reader, readConcurrency, acquireTimeoutMillis);
+        setTargetDataSources(Map.of(WRITE, writeTarget, READ, readTarget));
+        setDefaultTargetDataSource(writer);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * 所有单例初始化完成后，事务外的访问改用只读连接池
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        started = true;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return started ? READ : WRITE;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ : WRITE;
+    }
+
+    /**
+     * 获取两个连接池的使用情况
+     * @return 各连接池的连接上限、使用中、空闲和等待连接的线程数，以及并发许可的占用和排队情况
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put(WRITE, poolStats(writer, writeTarget));
+        stats.put(READ, poolStats(reader, readTarget));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        reader.close();
+        writer.close();
+    }
+
+    private static DataSource limit(HikariDataSource pool, int maxConcurrency, long acquireTimeoutMillis) {
+        return maxConcurrency > 0
+            ? new ConcurrencyLimitingDataSource(pool, maxConcurrency, acquireTimeoutMillis)
+            : pool;
+    }
+
+    private static Map<String, Object> poolStats(HikariDataSource pool, DataSource target) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxSize", pool.getMaximumPoolSize());
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        if (bean != null) {
+            stats.put("active", bean.getActiveConnections());
+            stats.put("idle", bean.getIdleConnections());
+            stats.put("waiting", bean.getThreadsAwaitingConnection());
+        }
+        if (target instanceof ConcurrencyLimitingDataSource limited) {
+            stats.put("permits", limited.stats());
+        }
+        return stats;
+    }
+}
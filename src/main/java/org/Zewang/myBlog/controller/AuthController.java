@@ -3,16 +3,17 @@ package org.Zewang.myBlog.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.Zewang.myBlog.common.ApiResponse;
+import org.Zewang.myBlog.common.exception.AuthenticationException;
 import org.Zewang.myBlog.dto.AuthResponseDTO;
 import org.Zewang.myBlog.dto.LoginDTO;
+import org.Zewang.myBlog.model.User;
+import org.Zewang.myBlog.service.user.UserService;
 import org.Zewang.myBlog.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -42,7 +43,7 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager; // 认证管理器
 
-    private final UserDetailsService userDetailsService;
+    private final UserService userService;
 
     private final JwtUtil jwtUtil;
 
@@ -63,8 +64,7 @@ public class AuthController {
     })
     public ApiResponse<AuthResponseDTO> login(@RequestBody LoginDTO loginDTO) { // RequestBody作用：将json数据映射为对象
 
-        // 在认证前添加日志
-        System.out.println("Attempting authentication for user: " + loginDTO.getUsername());
+        log.debug("尝试登录，用户名：{}", loginDTO.getUsername());
 
         // 步骤一：验证用户名和密码
         Authentication authentication = authenticationManager.authenticate( // 调用Spring Security的认证机制验证用户凭据
@@ -74,16 +74,19 @@ public class AuthController {
             )
         );
 
-        System.out.println("Authentication successful for user: " + loginDTO.getUsername());
+        log.debug("认证成功，用户名：{}", loginDTO.getUsername());
 
         // 步骤二：设置认证上下文
         SecurityContextHolder.getContext().setAuthentication(authentication); // 将认证信息保存到安全上下文中
 
-        // 步骤三：获取用户详情并生成JWT令牌
-        UserDetails userDetails = userDetailsService.loadUserByUsername(loginDTO.getUsername()); // 获取用户详细信息
-        System.out.println("User details loaded: " + userDetails.getUsername());
+        // 步骤三：获取用户并生成JWT令牌，令牌中签名携带用户ID、角色和令牌版本
+        User user = userService.findByUsername(loginDTO.getUsername());
+        if (user == null) {
+            // 认证通过后用户被删除等情况
+            throw new AuthenticationException("用户不存在");
+        }
 
-        String token = jwtUtil.generateToken(userDetails);
+        String token = jwtUtil.generateToken(user);
 
         // 步骤四：返回包含令牌的响应
         return ApiResponse.success(new AuthResponseDTO(token));
@@ -4,17 +4,21 @@ import java.util.List;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.Zewang.myBlog.common.ApiResponse;
+import org.Zewang.myBlog.common.security.AuthenticatedUser;
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.dto.CommentNodeDTO;
 import org.Zewang.myBlog.dto.CreateCommentDTO;
 import org.Zewang.myBlog.model.Comment;
 import org.Zewang.myBlog.service.comment.CommentService;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 // Swagger注解
@@ -63,12 +67,11 @@ public class CommentController {
     })
     public ApiResponse<Comment> createComment(
         @Valid @RequestBody CreateCommentDTO dto,
-        Authentication authentication) {
+        @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
         
         // 从认证信息中获取用户ID和用户名
-        // 这里简化处理，实际应该从UserDetails中获取
-        String userId = authentication.getName(); // 假设用户名就是用户ID
-        String username = authentication.getName();
+        String userId = user.id();
+        String username = user.username();
         
         Comment comment = commentService.createComment(dto, userId, username);
         return ApiResponse.success(comment);
@@ -77,22 +80,68 @@ public class CommentController {
     // 根据文章ID查询评论列表
     @GetMapping("/article/{articleId}")
     @PreAuthorize("permitAll()")
-    @Operation(summary = "获取文章评论", description = "获取指定文章的评论列表")
+    @Operation(summary = "获取文章评论", description = "获取指定文章的评论树，已删除但仍有回复的评论以占位节点返回")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200",
             description = "成功获取评论列表",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = Comment.class))}
+                schema = @Schema(implementation = CommentNodeDTO.class))}
         )
     })
-    public ApiResponse<List<Comment>> getCommentsByArticleId(
-        @Parameter(description = "文章ID", required = true) @PathVariable String articleId) {
+    public ApiResponse<List<CommentNodeDTO>> getCommentsByArticleId(
+        @Parameter(description = "文章ID", required = true) @PathVariable String articleId,
+        @Parameter(description = "最大回复深度，顶级评论为0") @RequestParam(required = false) Integer depth,
+        @Parameter(description = "每条评论最多返回的回复数") @RequestParam(required = false) Integer replies) {
         
-        List<Comment> comments = commentService.getCommentsByArticleId(articleId);
+        List<CommentNodeDTO> comments = commentService.getCommentsByArticleId(articleId, depth, replies);
         return ApiResponse.success(comments);
     }
     
+    // 游标分页获取文章的顶级评论
+    @GetMapping("/article/{articleId}/threads")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "分页获取文章评论",
+        description = "按创建时间倒序游标分页获取顶级评论，每条评论只附带最早的若干条回复和回复总数")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "成功获取评论列表",
+            content = {@Content(mediaType = "application/json",
+                schema = @Schema(implementation = CursorPage.class))}
+        )
+    })
+    public ApiResponse<CursorPage<CommentNodeDTO>> getCommentThreads(
+        @Parameter(description = "文章ID", required = true) @PathVariable String articleId,
+        @Parameter(description = "上一页返回的游标，为空表示第一页") @RequestParam(required = false) String cursor,
+        @Parameter(description = "每页大小", example = "10") @RequestParam(defaultValue = "10") Integer size,
+        @Parameter(description = "每条评论附带的回复数") @RequestParam(required = false) Integer replies) {
+
+        return ApiResponse.success(
+            commentService.getCommentThreads(articleId, cursor, resolveCursorSize(size), replies));
+    }
+
+    // 游标分页获取评论的回复
+    @GetMapping("/article/{articleId}/threads/{commentId}/replies")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "分页获取评论回复", description = "按创建时间正序游标分页获取指定评论的直接回复")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "成功获取回复列表",
+            content = {@Content(mediaType = "application/json",
+                schema = @Schema(implementation = CursorPage.class))}
+        )
+    })
+    public ApiResponse<CursorPage<CommentNodeDTO>> getReplies(
+        @Parameter(description = "文章ID", required = true) @PathVariable String articleId,
+        @Parameter(description = "评论ID", required = true) @PathVariable String commentId,
+        @Parameter(description = "上一页或评论列表返回的游标，为空表示从第一条回复开始") @RequestParam(required = false) String cursor,
+        @Parameter(description = "每页大小", example = "10") @RequestParam(defaultValue = "10") Integer size) {
+
+        return ApiResponse.success(commentService.getReplies(articleId, commentId, cursor, resolveCursorSize(size)));
+    }
+    
     // 删除评论
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -120,9 +169,9 @@ public class CommentController {
     })
     public ApiResponse<String> deleteComment(
         @Parameter(description = "评论ID", required = true) @PathVariable String id,
-        Authentication authentication) {
+        @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String userId = authentication.getName();
+        String userId = user.id();
         commentService.deleteComment(id, userId);
         return ApiResponse.success("评论删除成功");
     }
@@ -144,10 +193,17 @@ public class CommentController {
             content = @Content
         )
     })
-    public ApiResponse<List<Comment>> getMyComments(Authentication authentication) {
+    public ApiResponse<List<Comment>> getMyComments(@Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String userId = authentication.getName();
+        String userId = user.id();
         List<Comment> comments = commentService.getCommentsByUserId(userId);
         return ApiResponse.success(comments);
     }
+
+    /**
+     * 游标分页每页大小，限制在 1~100 之间，非法值使用默认值 10
+     */
+    private int resolveCursorSize(Integer size) {
+        return (size != null && size > 0 && size <= 100) ? size : 10;
+    }
 }
\ No newline at end of file
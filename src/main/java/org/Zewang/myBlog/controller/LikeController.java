@@ -5,10 +5,11 @@ import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.Zewang.myBlog.common.ApiResponse;
+import org.Zewang.myBlog.common.security.AuthenticatedUser;
 import org.Zewang.myBlog.model.Like;
 import org.Zewang.myBlog.service.like.LikeService;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -62,10 +63,10 @@ public class LikeController {
     })
     public ApiResponse<Like> createLike(
         @Parameter(description = "文章ID", required = true) @PathVariable String articleId,
-        Authentication authentication) {
+        @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String userId = authentication.getName();
-        String username = authentication.getName();
+        String userId = user.id();
+        String username = user.username();
         
         Like like = likeService.createLike(articleId, userId, username);
         return ApiResponse.success(like);
@@ -93,9 +94,9 @@ public class LikeController {
     })
     public ApiResponse<String> cancelLike(
         @Parameter(description = "文章ID", required = true) @PathVariable String articleId,
-        Authentication authentication) {
+        @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String userId = authentication.getName();
+        String userId = user.id();
         likeService.cancelLike(articleId, userId);
         return ApiResponse.success("取消点赞成功");
     }
@@ -117,9 +118,9 @@ public class LikeController {
     })
     public ApiResponse<Map<String, Boolean>> getLikeStatus(
         @Parameter(description = "文章ID", required = true) @PathVariable String articleId,
-        Authentication authentication) {
+        @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String userId = authentication.getName();
+        String userId = user.id();
         boolean isLiked = likeService.isLiked(articleId, userId);
         
         Map<String, Boolean> result = new HashMap<>();
@@ -163,9 +164,9 @@ public class LikeController {
             content = @Content
         )
     })
-    public ApiResponse<List<Like>> getMyLikes(Authentication authentication) {
+    public ApiResponse<List<Like>> getMyLikes(@Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String userId = authentication.getName();
+        String userId = user.id();
         List<Like> likes = likeService.getLikesByUserId(userId);
         return ApiResponse.success(likes);
     }
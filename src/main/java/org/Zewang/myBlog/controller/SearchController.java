@@ -3,6 +3,7 @@ package org.Zewang.myBlog.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.Zewang.myBlog.common.ApiResponse;
+import org.Zewang.myBlog.dto.ArticleSearchHitDTO;
 import org.Zewang.myBlog.dto.SearchArticleDTO;
 import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.service.search.SearchService;
@@ -79,4 +80,25 @@ public class SearchController {
         Page<Article> articles = searchService.quickSearch(keyword, pageNum, pageSize);
         return ApiResponse.success(articles);
     }
+    
+    // 全文检索文章
+    @GetMapping("/fulltext")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "全文检索文章", description = "基于 SQLite FTS5 检索已发布文章，按相关度排序并返回高亮摘要")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "检索成功",
+            content = {@Content(mediaType = "application/json",
+                schema = @Schema(implementation = Page.class))}
+        )
+    })
+    public ApiResponse<Page<ArticleSearchHitDTO>> fullTextSearch(
+        @Parameter(description = "搜索关键词，多个词项用空格分隔") @RequestParam(required = false) String keyword,
+        @Parameter(description = "当前页码", example = "1") @RequestParam(defaultValue = "1") Integer pageNum,
+        @Parameter(description = "每页大小", example = "10") @RequestParam(defaultValue = "10") Integer pageSize) {
+        
+        Page<ArticleSearchHitDTO> hits = searchService.fullTextSearch(keyword, pageNum, pageSize);
+        return ApiResponse.success(hits);
+    }
 }
\ No newline at end of file
@@ -1,13 +1,28 @@
 package org.Zewang.myBlog.controller.admin;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.Zewang.myBlog.common.ApiResponse;
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.common.security.BoundedPasswordEncoder;
+import org.Zewang.myBlog.config.PinnedThreadMonitor;
+import org.Zewang.myBlog.config.RateLimitFilter;
+import org.Zewang.myBlog.config.datasource.ReadWriteRoutingDataSource;
+import org.Zewang.myBlog.dto.ActivityDTO;
+import org.Zewang.myBlog.dto.BulkCommentStatusDTO;
+import org.Zewang.myBlog.dto.BulkCommentStatusResultDTO;
+import org.Zewang.myBlog.dto.DashboardStatsDTO;
 import org.Zewang.myBlog.model.User;
-import org.Zewang.myBlog.service.article.ArticleService;
+import org.Zewang.myBlog.service.activity.ActivityService;
 import org.Zewang.myBlog.service.comment.CommentService;
+import org.Zewang.myBlog.service.stats.DashboardStatsService;
 import org.Zewang.myBlog.service.user.UserService;
+import org.Zewang.myBlog.service.write.WritePipeline;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,13 +31,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.time.LocalDateTime;
 import org.Zewang.myBlog.model.Comment;
 
 /**
@@ -40,32 +54,79 @@ public class AdminController {
 
     private final Logger log = LoggerFactory.getLogger(AdminController.class);
     private final UserService userService;
-    private final ArticleService articleService;
     private final CommentService commentService;
+    private final CacheManager cacheManager;
+    private final DashboardStatsService dashboardStatsService;
+    private final ActivityService activityService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final RateLimitFilter rateLimitFilter;
+    private final ReadWriteRoutingDataSource readWriteRoutingDataSource;
+    private final PinnedThreadMonitor pinnedThreadMonitor;
+    private final WritePipeline writePipeline;
 
     /**
-     * 获取仪表盘统计数据
+     * 获取仪表盘统计数据（定时刷新的快照，refresh=true 时立即重新统计）
      */
     @GetMapping("/dashboard/stats")
-    public ApiResponse<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // 用户统计
-        stats.put("totalUsers", userService.countTotalUsers());
-        stats.put("activeUsers", userService.countActiveUsers());
-        stats.put("userRegistrationTrend", userService.getUserRegistrationTrend());
-        
-        // 文章统计
-        stats.put("totalArticles", articleService.countTotalArticles());
-        stats.put("publishedArticles", articleService.countPublishedArticles());
-        stats.put("draftArticles", articleService.countDraftArticles());
-        stats.put("articleCategoryStats", articleService.getArticleCategoryStats());
-        
-        // 评论统计
-        stats.put("totalComments", commentService.countTotalComments());
-        stats.put("pendingComments", commentService.countPendingComments());
-        
-        return ApiResponse.success(stats);
+    public ApiResponse<DashboardStatsDTO> getDashboardStats(@RequestParam(defaultValue = "false") boolean refresh) {
+        return ApiResponse.success(refresh ? dashboardStatsService.refresh() : dashboardStatsService.getStats());
+    }
+
+    /**
+     * 获取本地缓存统计（容量、命中、未命中、淘汰次数）
+     */
+    @GetMapping("/cache/stats")
+    public ApiResponse<Map<String, Object>> getCacheStats() {
+        Map<String, Object> result = new HashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+                continue;
+            }
+            CacheStats cacheStats = cache.getNativeCache().stats();
+            Map<String, Object> item = new HashMap<>();
+            item.put("size", cache.getNativeCache().estimatedSize());
+            item.put("hitCount", cacheStats.hitCount());
+            item.put("missCount", cacheStats.missCount());
+            item.put("hitRate", cacheStats.hitRate());
+            item.put("evictionCount", cacheStats.evictionCount());
+            result.put(name, item);
+        }
+        return ApiResponse.success(result);
+    }
+
+    /**
+     * 获取密码哈希线程池统计（队列深度、拒绝次数、哈希耗时）
+     */
+    @GetMapping("/password-hash/stats")
+    public ApiResponse<Map<String, Object>> getPasswordHashStats() {
+        return ApiResponse.success(passwordEncoder.stats());
+    }
+
+    /**
+     * 获取请求限流统计（跟踪的客户端数、拒绝次数）
+     */
+    @GetMapping("/rate-limit/stats")
+    public ApiResponse<Map<String, Object>> getRateLimitStats() {
+        return ApiResponse.success(rateLimitFilter.stats());
+    }
+
+    /**
+     * 获取并发统计：读写连接池的使用情况和并发许可的占用、排队情况，虚拟线程固定次数
+     */
+    @GetMapping("/concurrency/stats")
+    public ApiResponse<Map<String, Object>> getConcurrencyStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("pools", readWriteRoutingDataSource.stats());
+        result.put("pinning", pinnedThreadMonitor.stats());
+        return ApiResponse.success(result);
+    }
+
+    /**
+     * 获取写入管道统计（队列深度、组提交批次数与批大小、失败和拒绝次数）
+     */
+    @GetMapping("/write-pipeline/stats")
+    public ApiResponse<Map<String, Object>> getWritePipelineStats() {
+        return ApiResponse.success(writePipeline.stats());
     }
 
     /**
@@ -160,43 +221,39 @@ public class AdminController {
     }
     
     /**
-     * 获取最近活动
+     * 获取最近活动：评论、点赞、文章发布和用户注册按时间倒序合并，游标分页
      */
     @GetMapping("/dashboard/recent-activities")
-    public ApiResponse<List<Map<String, Object>>> getRecentActivities() {
-        List<Map<String, Object>> activities = new ArrayList<>();
-        
-        // 获取最近的评论
-        List<Comment> recentComments = commentService.getRecentComments(10);
-        for (Comment comment : recentComments) {
-            Map<String, Object> activity = new HashMap<>();
-            activity.put("type", "comment");
-            activity.put("content", comment.getContent());
-            activity.put("username", comment.getUsername());
-            activity.put("createTime", comment.getCreateTime());
-            activity.put("articleId", comment.getArticleId());
-            activities.add(activity);
-        }
-        
-        // 可以添加更多类型的活动，比如文章发布、用户注册等
-        
-        // 按时间倒序排序
-        activities.sort((a, b) -> {
-            LocalDateTime timeA = (LocalDateTime) a.get("createTime");
-            LocalDateTime timeB = (LocalDateTime) b.get("createTime");
-            return timeB.compareTo(timeA);
-        });
-        
-        return ApiResponse.success(activities);
+    public ApiResponse<CursorPage<ActivityDTO>> getRecentActivities(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") Integer limit) {
+        int size = (limit != null && limit > 0 && limit <= 100) ? limit : 10;
+        return ApiResponse.success(activityService.getRecentActivities(cursor, size));
     }
     
     /**
-     * 获取所有评论列表
+     * 评论审核列表：可按状态、文章、用户筛选，按创建时间倒序游标分页
      */
     @GetMapping("/comments")
-    public ApiResponse<List<Comment>> getAllComments() {
-        List<Comment> comments = commentService.getAllComments();
-        return ApiResponse.success(comments);
+    public ApiResponse<CursorPage<Comment>> getComments(
+        @RequestParam(required = false) Integer status,
+        @RequestParam(required = false) String articleId,
+        @RequestParam(required = false) String userId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") Integer size) {
+        if (status != null && !isValidCommentStatus(status)) {
+            return ApiResponse.error(400, "无效的评论状态，只能是0（正常）、1（已删除）或2（待审核）");
+        }
+        int pageSize = (size != null && size > 0 && size <= 100) ? size : 20;
+        return ApiResponse.success(commentService.getModerationComments(status, articleId, userId, cursor, pageSize));
+    }
+
+    /**
+     * 待审核评论数
+     */
+    @GetMapping("/comments/pending-count")
+    public ApiResponse<Long> countPendingComments() {
+        return ApiResponse.success(commentService.countPendingComments());
     }
     
     /**
@@ -217,8 +274,8 @@ public class AdminController {
     @PutMapping("/comments/{id}/status")
     public ApiResponse<Comment> updateCommentStatus(@PathVariable String id, @RequestBody Map<String, Integer> statusMap) {
         Integer status = statusMap.get("status");
-        if (status == null || (status != 0 && status != 1)) {
-            return ApiResponse.error(400, "无效的评论状态，只能是0（正常）或1（已删除）");
+        if (status == null || !isValidCommentStatus(status)) {
+            return ApiResponse.error(400, "无效的评论状态，只能是0（正常）、1（已删除）或2（待审核）");
         }
         
         Comment updatedComment = commentService.updateCommentStatus(id, status);
@@ -228,6 +285,19 @@ public class AdminController {
         return ApiResponse.success(updatedComment);
     }
     
+    /**
+     * 批量更新评论状态：按评论ID列表或筛选条件，一个事务内完成
+     */
+    @PutMapping("/comments/status")
+    public ApiResponse<BulkCommentStatusResultDTO> updateCommentStatusInBulk(
+        @Valid @RequestBody BulkCommentStatusDTO dto) {
+        if (!isValidCommentStatus(dto.getStatus())
+            || (dto.getFilterStatus() != null && !isValidCommentStatus(dto.getFilterStatus()))) {
+            return ApiResponse.error(400, "无效的评论状态，只能是0（正常）、1（已删除）或2（待审核）");
+        }
+        return ApiResponse.success(commentService.updateCommentStatusInBulk(dto));
+    }
+    
     /**
      * 删除评论
      */
@@ -236,4 +306,8 @@ public class AdminController {
         commentService.deleteComment(id, "admin"); // 管理员删除，使用固定用户ID
         return ApiResponse.success(null);
     }
+
+    private static boolean isValidCommentStatus(int status) {
+        return status == Comment.STATUS_NORMAL || status == Comment.STATUS_DELETED || status == Comment.STATUS_PENDING;
+    }
 }
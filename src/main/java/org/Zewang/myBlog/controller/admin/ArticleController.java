@@ -9,12 +9,18 @@ import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.Zewang.myBlog.common.*;
 import org.Zewang.myBlog.common.ApiResponse;
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.dto.ArticleDetailDTO;
+import org.Zewang.myBlog.dto.ArticleSummaryDTO;
 import org.Zewang.myBlog.dto.CreateArticleDTO;
 import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.model.Category;
 import org.Zewang.myBlog.model.enums.ArticleStatus;
 import org.Zewang.myBlog.service.article.ArticleService;
 import org.Zewang.myBlog.service.category.CategoryService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -62,14 +68,34 @@ public class ArticleController {
             responseCode = "200",
             description = "成功获取文章列表",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = Article.class))}
+                schema = @Schema(implementation = ArticleSummaryDTO.class))}
         )
     })
-    public ApiResponse<List<Article>> list() {
-        List<Article> articles = articleService.getAllArticles();
+    public ApiResponse<List<ArticleSummaryDTO>> list() {
+        List<ArticleSummaryDTO> articles = articleService.getAllArticles();
         return ApiResponse.success(articles);
     }
 
+    /**
+     * 游标分页显示文章列表
+     */
+    @GetMapping("/list/cursor")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "游标分页获取所有文章", description = "按创建时间倒序游标分页获取文章，翻页深度不影响查询成本")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "成功获取文章列表",
+            content = {@Content(mediaType = "application/json",
+                schema = @Schema(implementation = CursorPage.class))}
+        )
+    })
+    public ApiResponse<CursorPage<ArticleSummaryDTO>> listByCursor(
+        @Parameter(description = "上一页返回的游标，为空表示第一页") @RequestParam(required = false) String cursor,
+        @Parameter(description = "每页大小", example = "10") @RequestParam(defaultValue = "10") Integer size) {
+        return ApiResponse.success(articleService.getArticlesByCursor(null, null, cursor, resolveCursorSize(size)));
+    }
+
     /**
      * 显示已发布的文章列表
      */
@@ -81,14 +107,35 @@ public class ArticleController {
             responseCode = "200",
             description = "成功获取已发布文章列表",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = Article.class))}
+                schema = @Schema(implementation = ArticleSummaryDTO.class))}
         )
     })
-    public ApiResponse<List<Article>> publishedList() {
-        List<Article> articles = articleService.getPublishedArticles();
+    public ApiResponse<List<ArticleSummaryDTO>> publishedList() {
+        List<ArticleSummaryDTO> articles = articleService.getPublishedArticles();
         return ApiResponse.success(articles);
     }
 
+    /**
+     * 游标分页显示已发布的文章列表
+     */
+    @GetMapping("/published/cursor")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "游标分页获取已发布的文章", description = "按创建时间倒序游标分页获取已发布文章")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "成功获取已发布文章列表",
+            content = {@Content(mediaType = "application/json",
+                schema = @Schema(implementation = CursorPage.class))}
+        )
+    })
+    public ApiResponse<CursorPage<ArticleSummaryDTO>> publishedByCursor(
+        @Parameter(description = "上一页返回的游标，为空表示第一页") @RequestParam(required = false) String cursor,
+        @Parameter(description = "每页大小", example = "10") @RequestParam(defaultValue = "10") Integer size) {
+        return ApiResponse.success(
+            articleService.getArticlesByCursor(ArticleStatus.PUBLISHED, null, cursor, resolveCursorSize(size)));
+    }
+
     /**
      * 显示草稿列表
      */
@@ -100,7 +147,7 @@ public class ArticleController {
             responseCode = "200",
             description = "成功获取草稿文章列表",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = Article.class))}
+                schema = @Schema(implementation = ArticleSummaryDTO.class))}
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "403",
@@ -108,13 +155,37 @@ public class ArticleController {
             content = @Content
         )
     })
-    public ApiResponse<List<Article>> draftList() {
-        List<Article> articles = articleService.getAllArticles().stream()
-            .filter(article -> article.getStatus() == ArticleStatus.DRAFT)
-            .collect(Collectors.toList());
+    public ApiResponse<List<ArticleSummaryDTO>> draftList() {
+        List<ArticleSummaryDTO> articles = articleService.getDraftArticles();
         return ApiResponse.success(articles);
     }
 
+    /**
+     * 游标分页显示草稿列表
+     */
+    @GetMapping("/drafts/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    @Operation(summary = "游标分页获取草稿文章", description = "按创建时间倒序游标分页获取草稿文章（仅管理员可访问）")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "成功获取草稿文章列表",
+            content = {@Content(mediaType = "application/json",
+                schema = @Schema(implementation = CursorPage.class))}
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "权限不足",
+            content = @Content
+        )
+    })
+    public ApiResponse<CursorPage<ArticleSummaryDTO>> draftsByCursor(
+        @Parameter(description = "上一页返回的游标，为空表示第一页") @RequestParam(required = false) String cursor,
+        @Parameter(description = "每页大小", example = "10") @RequestParam(defaultValue = "10") Integer size) {
+        return ApiResponse.success(
+            articleService.getArticlesByCursor(ArticleStatus.DRAFT, null, cursor, resolveCursorSize(size)));
+    }
+
     // 获取文章详情
     @GetMapping("/{id}")
     @PreAuthorize("permitAll()")
@@ -124,7 +195,7 @@ public class ArticleController {
             responseCode = "200",
             description = "成功获取文章详情",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = Article.class))}
+                schema = @Schema(implementation = ArticleDetailDTO.class))}
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "404",
@@ -132,10 +203,11 @@ public class ArticleController {
             content = @Content
         )
     })
-    public ApiResponse<Article> viewArticle(
+    public ApiResponse<ArticleDetailDTO> viewArticle(
         @Parameter(description = "文章ID") @PathVariable("id") String id) {
-        Article article = articleService.getById(id)
+        ArticleDetailDTO article = articleService.getById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "文章不存在"));
+        articleService.increaseViewCount(id);
         return ApiResponse.success(article);
     }
 
@@ -294,24 +366,64 @@ public class ArticleController {
             responseCode = "200",
             description = "成功获取筛选后的文章列表",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = Article.class))}
+                schema = @Schema(implementation = ArticleSummaryDTO.class))}
         )
     })
-    public ApiResponse<List<Article>> listByCategories(
+    public ApiResponse<List<ArticleSummaryDTO>> listByCategories(
         @Parameter(description = "分类ID列表，用逗号分隔")
         @RequestParam(required = false) String categoryIds) {
         if (categoryIds == null || categoryIds.isEmpty()) {
             // 如果没有提供分类ID，则返回所有文章（不过滤状态）
-            List<Article> articles = articleService.getAllArticles();
+            List<ArticleSummaryDTO> articles = articleService.getAllArticles();
             return ApiResponse.success(articles);
         }
 
-        // 将逗号分隔的字符串转换为Set<String>
-        Set<String> categoryIdSet = Arrays.stream(categoryIds.split(","))
-            .map(String::trim)
-            .collect(Collectors.toSet());
+        List<ArticleSummaryDTO> articles = articleService.getArticlesByCategoryIds(parseCategoryIds(categoryIds));
+        return ApiResponse.success(articles);
+    }
+
+    // 游标分页获取分类下的文章
+    @GetMapping("/listByCategories/cursor")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "游标分页根据分类筛选文章", description = "根据一个或多个分类ID按创建时间倒序游标分页获取文章")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "成功获取筛选后的文章列表",
+            content = {@Content(mediaType = "application/json",
+                schema = @Schema(implementation = CursorPage.class))}
+        )
+    })
+    public ApiResponse<CursorPage<ArticleSummaryDTO>> listByCategoriesCursor(
+        @Parameter(description = "分类ID列表，用逗号分隔") @RequestParam(required = false) String categoryIds,
+        @Parameter(description = "上一页返回的游标，为空表示第一页") @RequestParam(required = false) String cursor,
+        @Parameter(description = "每页大小", example = "10") @RequestParam(defaultValue = "10") Integer size) {
+        return ApiResponse.success(articleService.getArticlesByCursor(
+            null, parseCategoryIds(categoryIds), cursor, resolveCursorSize(size)));
+    }
 
-        List<Article> articles = articleService.getArticlesByCategoryIds(categoryIdSet);
+    // 分页获取分类下的已发布文章
+    @GetMapping("/listByCategories/page")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "分页获取分类文章", description = "根据一个或多个分类ID分页获取已发布文章")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "成功获取分页文章列表",
+            content = {@Content(mediaType = "application/json",
+                schema = @Schema(implementation = Page.class))}
+        )
+    })
+    public ApiResponse<Page<ArticleSummaryDTO>> pageByCategories(
+        @Parameter(description = "分类ID列表，用逗号分隔") @RequestParam(required = false) String categoryIds,
+        @Parameter(description = "当前页码", example = "1") @RequestParam(defaultValue = "1") Integer pageNum,
+        @Parameter(description = "每页大小", example = "10") @RequestParam(defaultValue = "10") Integer pageSize) {
+        PageRequest pageRequest = PageRequest.of(
+            (pageNum != null && pageNum > 0) ? pageNum - 1 : 0,
+            (pageSize != null && pageSize > 0 && pageSize <= 100) ? pageSize : 10,
+            Sort.by(Sort.Direction.DESC, "createTime").and(Sort.by(Sort.Direction.DESC, "id"))
+        );
+        Page<ArticleSummaryDTO> articles = articleService.getPublishedArticlesByCategoryIds(parseCategoryIds(categoryIds), pageRequest);
         return ApiResponse.success(articles);
     }
 
@@ -323,17 +435,13 @@ public class ArticleController {
             responseCode = "200",
             description = "成功搜索文章",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = Article.class))}
+                schema = @Schema(implementation = ArticleSummaryDTO.class))}
         )
     })
-    public ApiResponse<List<Article>> searchArticles(
+    public ApiResponse<List<ArticleSummaryDTO>> searchArticles(
         @Parameter(description = "关键词") @RequestParam(required = false) String keyword
     ) {
-        List<Article> articles = articleService.searchArticles(keyword);
-
-        List<Article> publishedArticles = articles.stream()
-            .filter(article -> article.getStatus() == ArticleStatus.PUBLISHED)
-            .collect(Collectors.toList());
+        List<ArticleSummaryDTO> publishedArticles = articleService.searchPublishedArticles(keyword, null);
         return ApiResponse.success(publishedArticles);
     }
 
@@ -345,52 +453,35 @@ public class ArticleController {
             responseCode = "200",
             description = "成功获取筛选后的文章列表",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = Article.class))}
+                schema = @Schema(implementation = ArticleSummaryDTO.class))}
         )
     })
-    public ApiResponse<List<Article>> searchWithFilters(
+    public ApiResponse<List<ArticleSummaryDTO>> searchWithFilters(
         @Parameter(description = "关键词") @RequestParam(required = false) String keyword,
         @Parameter(description = "分类ID列表，用逗号分隔") @RequestParam(required = false) String categoryIds) {
 
-        List<Article> articles;
-
-        // 如果同时提供了关键词和分类
-        if (keyword != null && !keyword.isEmpty() && categoryIds != null && !categoryIds.isEmpty()) {
-            // 先根据关键词搜索
-            articles = articleService.searchArticles(keyword);
-            // 再根据分类筛选
-            Set<String> categoryIdSet = Arrays.stream(categoryIds.split(","))
-                .map(String::trim)
-                .collect(Collectors.toSet());
-            articles = articles.stream()
-                .filter(article -> article.getCategories() != null &&
-                    article.getCategories().stream()
-                        .anyMatch(category -> categoryIdSet.contains(category.getId())))
-                .collect(Collectors.toList());
-        }
-        // 如果只提供了关键词
-        else if (keyword != null && !keyword.isEmpty()) {
-            articles = articleService.searchArticles(keyword);
-        }
-        // 如果只提供了分类
-        else if (categoryIds != null && !categoryIds.isEmpty()) {
-            Set<String> categoryIdSet = Arrays.stream(categoryIds.split(","))
-                .map(String::trim)
-                .collect(Collectors.toSet());
-            articles = articleService.getArticlesByCategoryIds(categoryIdSet);
-        }
-        // 如果都没有提供
-        else {
-            articles = articleService.getAllArticles().stream()
-                .filter(article -> article.getStatus() == ArticleStatus.PUBLISHED)
-                .collect(Collectors.toList());
-        }
+        // 关键词、分类和发布状态在同一条查询中完成筛选
+        List<ArticleSummaryDTO> publishedArticles = articleService.searchPublishedArticles(keyword, parseCategoryIds(categoryIds));
+        return ApiResponse.success(publishedArticles);
+    }
 
-        // 只返回已发布的文章
-        List<Article> publishedArticles = articles.stream()
-            .filter(article -> article.getStatus() == ArticleStatus.PUBLISHED)
-            .collect(Collectors.toList());
+    /**
+     * 游标分页每页大小，限制在 1~100 之间，非法值使用默认值 10
+     */
+    private int resolveCursorSize(Integer size) {
+        return (size != null && size > 0 && size <= 100) ? size : 10;
+    }
 
-        return ApiResponse.success(publishedArticles);
+    /**
+     * 将逗号分隔的分类ID转换为集合，为空时返回 null
+     */
+    private Set<String> parseCategoryIds(String categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return null;
+        }
+        return Arrays.stream(categoryIds.split(","))
+            .map(String::trim)
+            .filter(id -> !id.isEmpty())
+            .collect(Collectors.toSet());
     }
 }
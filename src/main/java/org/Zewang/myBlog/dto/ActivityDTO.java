@@ -0,0 +1,35 @@
+package org.Zewang.myBlog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 管理后台动态，由评论、点赞、文章发布和用户注册合并而成；
+ *               createTime 为动态发生的时间，文章发布动态取发布时间
+ * @email "Zewang0217@outlook.com"
+ */
+@Schema(description = "管理后台动态")
+public record ActivityDTO(
+    @Schema(description = "动态类型：comment-评论，like-点赞，publish-发布文章，register-用户注册")
+    String type,
+
+    @Schema(description = "来源记录ID（评论、点赞、文章或用户的ID）")
+    String id,
+
+    @Schema(description = "用户名")
+    String username,
+
+    @Schema(description = "内容：评论内容或文章标题")
+    String content,
+
+    @Schema(description = "相关文章ID")
+    String articleId,
+
+    @Schema(description = "发生时间：评论、点赞、注册为创建时间，文章发布为发布时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime createTime
+) {
+}
@@ -0,0 +1,103 @@
+package org.Zewang.myBlog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.Zewang.myBlog.model.Article;
+import org.Zewang.myBlog.model.Category;
+import org.Zewang.myBlog.model.enums.ArticleStatus;
+import org.Zewang.myBlog.model.serialize.ArticleStatusSerializer;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 文章详情，从实体复制出的不可变快照，可以安全地放入缓存并被多个请求共享
+ * @email "Zewang0217@outlook.com"
+ */
+@Schema(description = "文章详情")
+public record ArticleDetailDTO(
+    @Schema(description = "文章ID")
+    String id,
+
+    @Schema(description = "文章标题")
+    String title,
+
+    @Schema(description = "文章内容")
+    String content,
+
+    @Schema(description = "文章摘要（正文前200个字符）")
+    String excerpt,
+
+    @Schema(description = "作者")
+    String author,
+
+    @Schema(description = "创建时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime createTime,
+
+    @Schema(description = "更新时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime updateTime,
+
+    @Schema(description = "状态")
+    @JsonSerialize(using = ArticleStatusSerializer.class)
+    ArticleStatus status,
+
+    @Schema(description = "评论数")
+    Integer commentCount,
+
+    @Schema(description = "点赞数")
+    Integer likeCount,
+
+    @Schema(description = "阅读数")
+    Integer viewCount,
+
+    @Schema(description = "文章分类列表")
+    List<CategoryRef> categories
+) {
+
+    /**
+     * 文章所属的分类，只保留展示需要的字段
+     */
+    @Schema(description = "文章分类")
+    public record CategoryRef(
+        @Schema(description = "分类ID")
+        String id,
+
+        @Schema(description = "分类名称")
+        String name,
+
+        @Schema(description = "分类描述")
+        String description
+    ) {
+        public static CategoryRef of(Category category) {
+            return new CategoryRef(category.getId(), category.getName(), category.getDescription());
+        }
+    }
+
+    /**
+     * 复制文章实体，调用时分类集合需已加载
+     * @param article 文章实体
+     * @return 文章详情
+     */
+    public static ArticleDetailDTO of(Article article) {
+        List<CategoryRef> categories = article.getCategories() == null
+            ? List.of()
+            : article.getCategories().stream().map(CategoryRef::of).toList();
+        return new ArticleDetailDTO(
+            article.getId(),
+            article.getTitle(),
+            article.getContent(),
+            article.getExcerpt(),
+            article.getAuthor(),
+            article.getCreateTime(),
+            article.getUpdateTime(),
+            article.getStatus(),
+            article.getCommentCount(),
+            article.getLikeCount(),
+            article.getViewCount(),
+            categories);
+    }
+}
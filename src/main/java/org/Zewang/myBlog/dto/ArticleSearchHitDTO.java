@@ -0,0 +1,48 @@
+package org.Zewang.myBlog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.Zewang.myBlog.model.Article;
+import org.Zewang.myBlog.model.Category;
+
+@Schema(description = "全文检索结果")
+public record ArticleSearchHitDTO(
+    @Schema(description = "文章ID")
+    String id,
+
+    @Schema(description = "文章标题，命中部分使用 <mark> 标签高亮")
+    String title,
+
+    @Schema(description = "正文摘要，命中部分使用 <mark> 标签高亮")
+    String snippet,
+
+    @Schema(description = "相关度得分（BM25，越小越相关）")
+    Double score,
+
+    @Schema(description = "作者")
+    String author,
+
+    @Schema(description = "创建时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime createTime,
+
+    @Schema(description = "评论数")
+    Integer commentCount,
+
+    @Schema(description = "点赞数")
+    Integer likeCount,
+
+    @Schema(description = "阅读数")
+    Integer viewCount,
+
+    @Schema(description = "文章分类列表")
+    List<Category> categories
+) {
+    public static ArticleSearchHitDTO of(Article article, String title, String snippet, Double score) {
+        return new ArticleSearchHitDTO(article.getId(), title, snippet, score, article.getAuthor(),
+            article.getCreateTime(), article.getCommentCount(), article.getLikeCount(),
+            article.getViewCount(), article.getCategories());
+    }
+}
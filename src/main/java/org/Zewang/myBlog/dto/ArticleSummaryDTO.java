@@ -0,0 +1,50 @@
+package org.Zewang.myBlog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.Zewang.myBlog.model.Category;
+import org.Zewang.myBlog.model.enums.ArticleStatus;
+import org.Zewang.myBlog.model.serialize.ArticleStatusSerializer;
+
+@Schema(description = "文章摘要，用于列表展示，不包含正文")
+public record ArticleSummaryDTO(
+    @Schema(description = "文章ID")
+    String id,
+
+    @Schema(description = "文章标题")
+    String title,
+
+    @Schema(description = "文章摘要（正文前200个字符）")
+    String excerpt,
+
+    @Schema(description = "作者")
+    String author,
+
+    @Schema(description = "创建时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime createTime,
+
+    @Schema(description = "更新时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime updateTime,
+
+    @Schema(description = "状态")
+    @JsonSerialize(using = ArticleStatusSerializer.class)
+    ArticleStatus status,
+
+    @Schema(description = "评论数")
+    Integer commentCount,
+
+    @Schema(description = "点赞数")
+    Integer likeCount,
+
+    @Schema(description = "阅读数")
+    Integer viewCount,
+
+    @Schema(description = "文章分类列表")
+    List<Category> categories
+) {
+}
@@ -0,0 +1,34 @@
+package org.Zewang.myBlog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 批量修改评论状态的数据传输对象，评论ID列表和筛选条件二选一
+ * @email "Zewang0217@outlook.com"
+ */
+@Data
+@Schema(description = "批量修改评论状态的数据传输对象")
+public class BulkCommentStatusDTO {
+    @NotNull(message = "评论状态不能为空")
+    @Schema(description = "新状态：0-正常，1-已删除，2-待审核", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer status;
+
+    @Size(max = 10000, message = "一次最多修改10000条评论")
+    @Schema(description = "评论ID列表，与筛选条件二选一")
+    private List<String> ids;
+
+    @Schema(description = "筛选条件：评论当前状态")
+    private Integer filterStatus;
+
+    @Schema(description = "筛选条件：文章ID")
+    private String articleId;
+
+    @Schema(description = "筛选条件：用户ID")
+    private String userId;
+}
@@ -0,0 +1,13 @@
+package org.Zewang.myBlog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "批量修改评论状态的结果")
+public record BulkCommentStatusResultDTO(
+    @Schema(description = "实际修改的评论数")
+    int updated,
+
+    @Schema(description = "重新统计评论数的文章数")
+    int articles
+) {
+}
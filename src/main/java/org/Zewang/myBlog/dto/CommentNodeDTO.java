@@ -0,0 +1,77 @@
+package org.Zewang.myBlog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.Zewang.myBlog.common.pagination.KeysetCursor;
+import org.Zewang.myBlog.model.Comment;
+
+@Schema(description = "评论树节点，只读视图")
+public record CommentNodeDTO(
+    @Schema(description = "评论ID")
+    String id,
+
+    @Schema(description = "文章ID")
+    String articleId,
+
+    @Schema(description = "用户ID，已删除的占位节点为空")
+    String userId,
+
+    @Schema(description = "用户名，已删除的占位节点为空")
+    String author,
+
+    @Schema(description = "评论内容，已删除的占位节点为空")
+    String content,
+
+    @Schema(description = "父评论ID，为null表示顶级评论")
+    String parentId,
+
+    @Schema(description = "点赞数")
+    Integer likeCount,
+
+    @Schema(description = "创建时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime createTime,
+
+    @Schema(description = "更新时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime updateTime,
+
+    @Schema(description = "是否为已删除评论的占位节点（评论已删除但仍有可见的回复）")
+    boolean deleted,
+
+    @Schema(description = "直接回复总数，可能大于 replies 的长度（超出深度或数量上限的回复未返回）")
+    int replyCount,
+
+    @Schema(description = "回复列表，按创建时间正序")
+    List<CommentNodeDTO> replies,
+
+    @Schema(description = "继续加载回复的游标，回复已全部返回或尚未返回任何回复时为 null")
+    String repliesCursor
+) {
+
+    /**
+     * 由评论实体创建节点；已删除的评论只保留定位所需的字段
+     */
+    public static CommentNodeDTO of(Comment comment, boolean deleted, int replyCount, List<CommentNodeDTO> replies) {
+        String repliesCursor = !replies.isEmpty() && replies.size() < replyCount
+            ? replies.get(replies.size() - 1).cursor().encode()
+            : null;
+        if (deleted) {
+            return new CommentNodeDTO(comment.getId(), comment.getArticleId(), null, null, null,
+                comment.getParentId(), 0, comment.getCreateTime(), comment.getUpdateTime(), true, replyCount, replies,
+                repliesCursor);
+        }
+        return new CommentNodeDTO(comment.getId(), comment.getArticleId(), comment.getUserId(), comment.getUsername(),
+            comment.getContent(), comment.getParentId(), comment.getLikes(), comment.getCreateTime(),
+            comment.getUpdateTime(), false, replyCount, replies, repliesCursor);
+    }
+
+    /**
+     * 以当前节点为分页位置的游标
+     */
+    public KeysetCursor cursor() {
+        return new KeysetCursor(createTime, id);
+    }
+}
@@ -0,0 +1,60 @@
+package org.Zewang.myBlog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "管理后台仪表盘统计数据")
+public record DashboardStatsDTO(
+    @Schema(description = "用户总数")
+    long totalUsers,
+
+    @Schema(description = "活跃用户数")
+    long activeUsers,
+
+    @Schema(description = "最近7天每日注册人数")
+    List<RegistrationPoint> userRegistrationTrend,
+
+    @Schema(description = "文章总数")
+    long totalArticles,
+
+    @Schema(description = "已发布文章数")
+    long publishedArticles,
+
+    @Schema(description = "草稿文章数")
+    long draftArticles,
+
+    @Schema(description = "各分类文章数")
+    List<CategoryCount> articleCategoryStats,
+
+    @Schema(description = "评论总数")
+    long totalComments,
+
+    @Schema(description = "待审核评论数")
+    long pendingComments,
+
+    @Schema(description = "统计时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime generatedAt
+) {
+    @Schema(description = "每日注册人数")
+    public record RegistrationPoint(
+        @Schema(description = "日期", example = "2025-12-01")
+        String date,
+
+        @Schema(description = "注册人数")
+        long count
+    ) {
+    }
+
+    @Schema(description = "分类文章数")
+    public record CategoryCount(
+        @Schema(description = "分类名称")
+        String category,
+
+        @Schema(description = "文章数")
+        long count
+    ) {
+    }
+}
@@ -31,9 +31,19 @@ import org.Zewang.myBlog.model.enums.ArticleStatus;
  */
 @Accessors(chain = true)
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = {
+    @Index(name = "idx_articles_status_create_time", columnList = "status, create_time"),
+    @Index(name = "idx_articles_create_time_id", columnList = "create_time, id"),
+    @Index(name = "idx_articles_publish_time_id", columnList = "publish_time, id"),
+    @Index(name = "idx_articles_author", columnList = "author")
+})
 @Schema(description = "文章实体")
 public class Article {
+    /**
+     * 摘要截取的最大字符数，与前端列表预览的截取长度一致
+     */
+    public static final int EXCERPT_LENGTH = 200;
+
     @Id
     @GeneratedValue(generator = "uuid")
     @GenericGenerator(name = "uuid", strategy = "uuid2")
@@ -46,6 +56,10 @@ public class Article {
     @Schema(description = "文章内容")
     private String content;
 
+    @Schema(description = "文章摘要（正文前200个字符），列表接口只返回摘要不返回正文")
+    @Column(length = EXCERPT_LENGTH + 3)
+    private String excerpt;
+
     @Schema(description = "作者")
     private String author;
 
@@ -61,23 +75,36 @@ public class Article {
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     private LocalDateTime updateTime;
 
+    @Schema(description = "发布时间，文章状态变为已发布时设置")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    private LocalDateTime publishTime;
+
     @Schema(description = "状态")
     @JsonSerialize(using = ArticleStatusSerializer.class)
     @JsonDeserialize(using = ArticleStatusDeserializer.class)
     private ArticleStatus status;
     
     @Schema(description = "评论数")
+    @Column(updatable = false) // 只通过 ArticleRepository#addCommentCount 增量更新，保存文章时不覆盖
     private Integer commentCount = 0;
     
     @Schema(description = "点赞数")
+    @Column(updatable = false) // 只通过 ArticleRepository#addLikeCount 增量更新，保存文章时不覆盖
     private Integer likeCount = 0;
 
+    @Schema(description = "阅读数")
+    @Column(columnDefinition = "integer default 0")
+    private Integer viewCount = 0;
+
     @Schema(description = "文章分类列表")
     @ManyToMany
     @JoinTable(
         name = "article_category",
         joinColumns = @JoinColumn(name = "article_id"),
-        inverseJoinColumns = @JoinColumn(name = "category_id")
+        inverseJoinColumns = @JoinColumn(name = "category_id"),
+        indexes = @Index(name = "idx_article_category_category_id", columnList = "category_id")
     )
     private List<Category> categories;
     
@@ -109,6 +136,15 @@ public class Article {
         return this;
     }
     
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public Article setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+        return this;
+    }
+
     public String getAuthor() {
         return author;
     }
@@ -136,6 +172,15 @@ public class Article {
         return this;
     }
     
+    public LocalDateTime getPublishTime() {
+        return publishTime;
+    }
+    
+    public Article setPublishTime(LocalDateTime publishTime) {
+        this.publishTime = publishTime;
+        return this;
+    }
+    
     public ArticleStatus getStatus() {
         return status;
     }
@@ -163,6 +208,15 @@ public class Article {
         return this;
     }
     
+    public Integer getViewCount() {
+        return viewCount;
+    }
+    
+    public Article setViewCount(Integer viewCount) {
+        this.viewCount = viewCount;
+        return this;
+    }
+    
     public List<Category> getCategories() {
         return categories;
     }
@@ -171,4 +225,23 @@ public class Article {
         this.categories = categories;
         return this;
     }
+
+    /**
+     * 保存前根据正文生成摘要，保证摘要与正文一致
+     */
+    @PrePersist
+    @PreUpdate
+    void refreshExcerpt() {
+        this.excerpt = buildExcerpt(content);
+    }
+
+    /**
+     * 截取正文前 {@link #EXCERPT_LENGTH} 个字符作为摘要，超出部分以省略号表示
+     */
+    public static String buildExcerpt(String content) {
+        if (content == null || content.codePointCount(0, content.length()) <= EXCERPT_LENGTH) {
+            return content;
+        }
+        return content.substring(0, content.offsetByCodePoints(0, EXCERPT_LENGTH)) + "...";
+    }
 }
@@ -50,7 +50,9 @@ public class Category {
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     private LocalDateTime updateTime;
     
-    @Schema(description = "文章数量")
+    // 只由 CategoryRepository 的计数语句维护；保存实体时不写回，避免用读取时的旧值覆盖并发文章写入累加的计数
+    @Schema(description = "文章数量", accessMode = Schema.AccessMode.READ_ONLY)
+    @Column(updatable = false)
     private Integer articleCount = 0;
     
     // Getters and Setters
@@ -8,7 +8,6 @@ import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.LocalDateTime;
-import java.util.List;
 import lombok.Data;
 import lombok.experimental.Accessors;
 import jakarta.persistence.*;
@@ -23,9 +22,20 @@ import org.hibernate.annotations.GenericGenerator;
 @Data
 @Accessors(chain = true)
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_thread", columnList = "article_id, parent_id, status, create_time"),
+    @Index(name = "idx_comments_create_time_id", columnList = "create_time, id"),
+    @Index(name = "idx_comments_status_create_time", columnList = "status, create_time"),
+    @Index(name = "idx_comments_user_create_time", columnList = "user_id, create_time")
+})
 @Schema(description = "评论实体")
 public class Comment {
+
+    // 评论状态：正常、已删除、待审核；只有正常状态的评论计入文章评论数并直接展示
+    public static final int STATUS_NORMAL = 0;
+    public static final int STATUS_DELETED = 1;
+    public static final int STATUS_PENDING = 2;
+
     @Id
     @GeneratedValue(generator = "uuid")
     @GenericGenerator(name = "uuid", strategy = "uuid2")
@@ -126,7 +136,7 @@ public class Comment {
     @Schema(description = "父评论ID，用于回复功能，为null表示顶级评论")
     private String parentId;
     
-    @Schema(description = "评论状态：0-正常，1-已删除")
+    @Schema(description = "评论状态：0-正常，1-已删除，2-待审核")
     private Integer status = 0;
     
     @Schema(description = "点赞数")
@@ -144,17 +154,4 @@ public class Comment {
     @JsonSerialize(using = LocalDateTimeSerializer.class)
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     private LocalDateTime updateTime;
-
-    // 回复列表，非数据库字段，用于前端展示嵌套结构
-    @Schema(description = "回复列表")
-    private transient List<Comment> replies;
-
-    // 回复列表的 getter 和 setter
-    public List<Comment> getReplies() {
-        return replies;
-    }
-
-    public void setReplies(List<Comment> replies) {
-        this.replies = replies;
-    }
 }
\ No newline at end of file
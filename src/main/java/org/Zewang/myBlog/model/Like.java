@@ -21,7 +21,9 @@ import org.hibernate.annotations.GenericGenerator;
 @Data
 @Accessors(chain = true)
 @Entity
-@Table(name = "likes")
+@Table(name = "likes", indexes = {
+    @Index(name = "idx_likes_create_time_id", columnList = "create_time, id")
+})
 @Schema(description = "点赞实体")
 public class Like {
     
@@ -0,0 +1,32 @@
+package org.Zewang.myBlog.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 系统标记，记录一次性数据迁移已完成、上次停机时缓冲数据已写回等状态
+ * @email "Zewang0217@outlook.com"
+ */
+@Data
+@Accessors(chain = true)
+@Entity
+@Table(name = "system_markers")
+public class SystemMarker {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private LocalDateTime createTime;
+
+    public static SystemMarker of(String name) {
+        return new SystemMarker().setName(name).setCreateTime(LocalDateTime.now());
+    }
+}
@@ -1,6 +1,9 @@
 package org.Zewang.myBlog.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
 import lombok.Data;
 import jakarta.persistence.*;
 import org.hibernate.annotations.GenericGenerator;
@@ -13,7 +16,9 @@ import org.hibernate.annotations.GenericGenerator;
  * @date 2025/09/28 17:57
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_create_time_id", columnList = "create_time, id")
+})
 public class User {
     @Id
     @GeneratedValue(generator = "uuid")
@@ -29,6 +34,15 @@ public class User {
 
     @Schema(description = "用户角色")
     private String role; // / 可以是 ROLE_ADMIN, ROLE_USER 等
+
+    @Schema(description = "注册时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @Column(updatable = false)
+    private LocalDateTime createTime;
+
+    // 令牌版本，修改用户信息时加一，使之前签发的令牌失效
+    @JsonIgnore
+    private Integer tokenVersion = 0;
     
     // Getters and Setters
     public String getId() {
@@ -62,4 +76,30 @@ public class User {
     public void setRole(String role) {
         this.role = role;
     }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(LocalDateTime createTime) {
+        this.createTime = createTime;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    /**
+     * 首次保存时记录注册时间，更新时不会覆盖（updatable = false）
+     */
+    @PrePersist
+    void initCreateTime() {
+        if (createTime == null) {
+            createTime = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package org.Zewang.myBlog.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.Zewang.myBlog.dto.ActivityDTO;
+import org.springframework.stereotype.Repository;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 管理后台动态的数据来源
+ *               每类动态各自按 (发生时间, id) 倒序取最新的若干条，只选取展示所需的列，
+ *               由发生时间相关索引支撑，不需要对整张表排序；
+ *               评论、点赞、注册的发生时间为创建时间，文章发布的发生时间为发布时间
+ * @email "Zewang0217@outlook.com"
+ */
+@Repository
+public class ActivityRepository {
+
+    /**
+     * 动态来源，type 同时决定同一时刻不同来源动态的先后（按 type 倒序）
+     */
+    public enum Source {
+        COMMENT("comment", "createTime",
+            "SELECT e.id, e.createTime, e.username, e.content, e.articleId FROM Comment e",
+            row -> new ActivityDTO("comment", (String) row[0], (String) row[2], (String) row[3], (String) row[4],
+                (LocalDateTime) row[1])),
+        LIKE("like", "createTime", "SELECT e.id, e.createTime, e.username, e.articleId FROM Like e",
+            row -> new ActivityDTO("like", (String) row[0], (String) row[2], null, (String) row[3],
+                (LocalDateTime) row[1])),
+        PUBLISH("publish", "publishTime", "SELECT e.id, e.publishTime, e.author, e.title FROM Article e "
+            + "WHERE e.status = org.Zewang.myBlog.model.enums.ArticleStatus.PUBLISHED",
+            row -> new ActivityDTO("publish", (String) row[0], (String) row[2], (String) row[3], (String) row[0],
+                (LocalDateTime) row[1])),
+        REGISTER("register", "createTime", "SELECT e.id, e.createTime, e.username FROM User e",
+            row -> new ActivityDTO("register", (String) row[0], (String) row[2], null, null,
+                (LocalDateTime) row[1]));
+
+        private final String type;
+        // 表示动态发生时间的属性，用于排序和游标比较
+        private final String time;
+        private final String select;
+        private final Function<Object[], ActivityDTO> mapper;
+
+        Source(String type, String time, String select, Function<Object[], ActivityDTO> mapper) {
+            this.type = type;
+            this.time = "e." + time;
+            this.select = select;
+            this.mapper = mapper;
+        }
+
+        public String type() {
+            return type;
+        }
+
+        public static Source ofType(String type) {
+            for (Source source : values()) {
+                if (source.type.equals(type)) {
+                    return source;
+                }
+            }
+            return null;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 查询某类动态中最新的若干条
+     * @param source 动态来源
+     * @param time 只返回早于该时间的动态，为空表示从最新开始
+     * @param idBound 与 time 相同时，只返回ID小于该值的动态
+     * @param limit 返回数量
+     * @return 按 (发生时间, id) 倒序排列的动态
+     */
+    public List<ActivityDTO> findLatest(Source source, LocalDateTime time, String idBound, int limit) {
+        String at = source.time;
+        StringBuilder jpql = new StringBuilder(source.select)
+            .append(source.select.contains(" WHERE ") ? " AND" : " WHERE")
+            .append(" ").append(at).append(" IS NOT NULL");
+        if (time != null) {
+            jpql.append(" AND (").append(at).append(" < :time OR (").append(at).append(" = :time AND e.id < :idBound))");
+        }
+        jpql.append(" ORDER BY ").append(at).append(" DESC, e.id DESC");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (time != null) {
+            query.setParameter("time", time);
+            query.setParameter("idBound", idBound);
+        }
+        List<Object[]> rows = query.setMaxResults(limit).getResultList();
+        List<ActivityDTO> activities = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            activities.add(source.mapper.apply(row));
+        }
+        return activities;
+    }
+}
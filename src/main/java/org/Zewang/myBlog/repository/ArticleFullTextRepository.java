@@ -0,0 +1,172 @@
+package org.Zewang.myBlog.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 基于 SQLite FTS5 的文章全文检索
+ *               articles_fts 使用 trigram 分词器（支持中文子串匹配），rowid 与 articles 表保持一致，
+ *               由触发器随 articles 的增删改自动同步，应用启动时全量重建一次以修正可能的偏差
+ * @email "Zewang0217@outlook.com"
+ */
+@Repository
+public class ArticleFullTextRepository {
+    private static final Logger log = LoggerFactory.getLogger(ArticleFullTextRepository.class);
+
+    /**
+     * trigram 分词器只能匹配长度不少于3个字符的词项，更短的词项改用 LIKE
+     */
+    private static final int MIN_MATCH_LENGTH = 3;
+
+    private static final String[] SCHEMA = {
+        "CREATE VIRTUAL TABLE IF NOT EXISTS articles_fts USING fts5(title, content, tokenize = 'trigram')",
+        "CREATE TRIGGER IF NOT EXISTS articles_fts_ai AFTER INSERT ON articles BEGIN "
+            + "INSERT INTO articles_fts(rowid, title, content) VALUES (new.rowid, new.title, new.content); END",
+        "CREATE TRIGGER IF NOT EXISTS articles_fts_ad AFTER DELETE ON articles BEGIN "
+            + "DELETE FROM articles_fts WHERE rowid = old.rowid; END",
+        "CREATE TRIGGER IF NOT EXISTS articles_fts_au AFTER UPDATE OF title, content ON articles "
+            + "WHEN old.title IS NOT new.title OR old.content IS NOT new.content BEGIN "
+            + "DELETE FROM articles_fts WHERE rowid = old.rowid; "
+            + "INSERT INTO articles_fts(rowid, title, content) VALUES (new.rowid, new.title, new.content); END"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean available;
+
+    /**
+     * 全文检索命中结果
+     * @param articleId 文章ID
+     * @param title 高亮后的标题
+     * @param snippet 高亮后的正文片段，仅有短词项时为 null
+     * @param score BM25 得分（越小越相关），仅有短词项时为 null
+     */
+    public record Hit(String articleId, String title, String snippet, Double score) {
+    }
+
+    public ArticleFullTextRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 在 Hibernate 完成建表之后创建虚拟表和触发器，并重建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            // 在读写事务中执行，事务外的访问会使用只读连接
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String ddl : SCHEMA) {
+                    jdbcTemplate.execute(ddl);
+                }
+                rebuild();
+            });
+            available = true;
+        } catch (Exception e) {
+            available = false;
+            log.warn("SQLite FTS5 全文索引不可用，全文检索将回退到内存索引：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按 articles 表全量重建全文索引
+     */
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM articles_fts");
+        int rows = jdbcTemplate.update(
+            "INSERT INTO articles_fts(rowid, title, content) SELECT rowid, title, content FROM articles");
+        log.info("文章全文索引重建完成，文章数：{}", rows);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * 检索已发布的文章
+     * @param keyword 关键词，多个词项用空格分隔，需全部命中
+     * @param status 文章状态在数据库中的取值
+     * @param offset 偏移量
+     * @param limit 返回数量
+     * @return 命中结果，按相关度排序
+     */
+    public List<Hit> search(String keyword, int status, long offset, int limit) {
+        Query query = buildQuery(keyword, status);
+        if (query == null) {
+            return List.of();
+        }
+        String select = query.ranked()
+            ? "SELECT a.id, highlight(articles_fts, 0, '<mark>', '</mark>') AS title, "
+                + "snippet(articles_fts, 1, '<mark>', '</mark>', '...', 32) AS snippet, "
+                + "bm25(articles_fts, 10.0, 1.0) AS score "
+            : "SELECT a.id, a.title, NULL AS snippet, NULL AS score ";
+        String order = query.ranked() ? " ORDER BY score, a.id" : " ORDER BY a.create_time DESC, a.id";
+
+        List<Object> args = new ArrayList<>(query.args());
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.query(select + query.from() + order + " LIMIT ? OFFSET ?",
+            (rs, rowNum) -> new Hit(
+                rs.getString("id"),
+                rs.getString("title"),
+                rs.getString("snippet"),
+                rs.getObject("score") != null ? rs.getDouble("score") : null),
+            args.toArray());
+    }
+
+    /**
+     * 统计命中的已发布文章数
+     */
+    public long count(String keyword, int status) {
+        Query query = buildQuery(keyword, status);
+        if (query == null) {
+            return 0;
+        }
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*)" + query.from(), Long.class, query.args().toArray());
+        return total != null ? total : 0;
+    }
+
+    private record Query(String from, List<Object> args, boolean ranked) {
+    }
+
+    private Query buildQuery(String keyword, int status) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        List<String> matchTerms = new ArrayList<>();
+        List<String> likeTerms = new ArrayList<>();
+        for (String term : keyword.trim().split("\\s+")) {
+            if (term.codePointCount(0, term.length()) >= MIN_MATCH_LENGTH) {
+                // 使用 FTS5 字符串语法，双引号转义后整体作为一个词项，避免用户输入被解析为查询运算符
+                matchTerms.add("\"" + term.replace("\"", "\"\"") + "\"");
+            } else {
+                likeTerms.add(term);
+            }
+        }
+
+        StringBuilder from = new StringBuilder(" FROM articles_fts JOIN articles a ON a.rowid = articles_fts.rowid WHERE a.status = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(status);
+        if (!matchTerms.isEmpty()) {
+            from.append(" AND articles_fts MATCH ?");
+            args.add(String.join(" AND ", matchTerms));
+        }
+        for (String term : likeTerms) {
+            String pattern = "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            from.append(" AND (articles_fts.title LIKE ? ESCAPE '\\' OR articles_fts.content LIKE ? ESCAPE '\\')");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        return new Query(from.toString(), args, !matchTerms.isEmpty());
+    }
+}
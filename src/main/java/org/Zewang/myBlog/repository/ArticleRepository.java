@@ -2,7 +2,15 @@ package org.Zewang.myBlog.repository;
 
 import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.model.enums.ArticleStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,11 +24,101 @@ import java.util.Optional;
  * @version 1.0
  */
 @Repository
-public interface ArticleRepository extends JpaRepository<Article, String> {
+public interface ArticleRepository extends JpaRepository<Article, String>, JpaSpecificationExecutor<Article>,
+    ArticleSummaryRepository {
     List<Article> findByStatus(ArticleStatus status);
     long countByStatus(ArticleStatus status);
+
+    /**
+     * 按状态分组统计文章数
+     * @return 每行为 [状态, 数量]
+     */
+    @Query("SELECT a.status, COUNT(a) FROM Article a GROUP BY a.status")
+    List<Object[]> countGroupByStatus();
     List<Article> findByAuthor(String author);
     Optional<Article> findByTitle(String title);
     boolean existsByTitle(String title);
     boolean existsByTitleAndIdNot(String title, String id);
-}
\ No newline at end of file
+
+    /**
+     * 按条件查询并一次性抓取分类，避免逐篇懒加载分类产生 N+1 查询
+     * （集合抓取不能与分页同时使用，列表分页请使用 {@link ArticleSummaryRepository}）
+     */
+    @Override
+    @EntityGraph(attributePaths = "categories")
+    List<Article> findAll(Specification<Article> spec, Sort sort);
+
+    /**
+     * 按增量增加阅读数，直接在数据库中自增，不读取整行
+     * @param id 文章ID
+     * @param delta 增量
+     * @return 受影响的行数
+     */
+    @Modifying
+    @Query("UPDATE Article a SET a.viewCount = COALESCE(a.viewCount, 0) + :delta WHERE a.id = :id")
+    int addViewCount(@Param("id") String id, @Param("delta") long delta);
+
+    /**
+     * 按增量调整点赞数，结果不小于0
+     * @param id 文章ID
+     * @param delta 增量，可为负数
+     * @return 受影响的行数
+     */
+    @Modifying
+    @Query("UPDATE Article a SET a.likeCount = CASE "
+        + "WHEN COALESCE(a.likeCount, 0) + :delta < 0 THEN 0 "
+        + "ELSE COALESCE(a.likeCount, 0) + :delta END WHERE a.id = :id")
+    int addLikeCount(@Param("id") String id, @Param("delta") long delta);
+
+    /**
+     * 按增量调整评论数，结果不小于0
+     * @param id 文章ID
+     * @param delta 增量，可为负数
+     * @return 受影响的行数，文章不存在时为0
+     */
+    @Modifying
+    @Query("UPDATE Article a SET a.commentCount = CASE "
+        + "WHEN COALESCE(a.commentCount, 0) + :delta < 0 THEN 0 "
+        + "ELSE COALESCE(a.commentCount, 0) + :delta END WHERE a.id = :id")
+    int addCommentCount(@Param("id") String id, @Param("delta") int delta);
+
+    /**
+     * 按点赞表重新统计所有文章的点赞数
+     * @return 受影响的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Article a SET a.likeCount = (SELECT COUNT(l) FROM Like l WHERE l.articleId = a.id)")
+    int recalculateLikeCounts();
+
+    /**
+     * 为没有发布时间的已发布历史文章补充发布时间，取创建时间
+     * @param status 已发布状态
+     * @return 受影响的行数
+     */
+    @Modifying
+    @Query("UPDATE Article a SET a.publishTime = a.createTime WHERE a.status = :status AND a.publishTime IS NULL")
+    int fillMissingPublishTimes(@Param("status") ArticleStatus status);
+
+    /**
+     * 为没有摘要的历史文章补充摘要，规则与 {@link Article#buildExcerpt} 一致
+     * @return 受影响的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Article a SET a.excerpt = CASE "
+        + "WHEN LENGTH(a.content) > " + Article.EXCERPT_LENGTH
+        + " THEN CONCAT(SUBSTRING(a.content, 1, " + Article.EXCERPT_LENGTH + "), '...') "
+        + "ELSE a.content END "
+        + "WHERE a.excerpt IS NULL AND a.content IS NOT NULL")
+    int fillMissingExcerpts();
+
+    /**
+     * 查询文章在指定状态下所属的分类ID，文章不是该状态时返回空列表
+     * @param id 文章ID
+     * @param status 文章状态
+     * @return 分类ID列表
+     */
+    @Query("SELECT c.id FROM Article a JOIN a.categories c WHERE a.id = :id AND a.status = :status")
+    List<String> findCategoryIdsByIdAndStatus(@Param("id") String id, @Param("status") ArticleStatus status);
+}
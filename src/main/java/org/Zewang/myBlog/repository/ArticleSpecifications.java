@@ -0,0 +1,78 @@
+package org.Zewang.myBlog.repository;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.Collection;
+import java.util.List;
+import org.Zewang.myBlog.common.pagination.KeysetCursor;
+import org.Zewang.myBlog.model.Article;
+import org.Zewang.myBlog.model.Category;
+import org.Zewang.myBlog.model.enums.ArticleStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 文章查询条件，供 {@link ArticleRepository} 组合成一次数据库查询
+ *               参数为空时返回 null，Specification 组合时会自动忽略该条件
+ * @email "Zewang0217@outlook.com"
+ */
+public final class ArticleSpecifications {
+
+    private ArticleSpecifications() {
+    }
+
+    public static Specification<Article> idIn(Collection<String> ids) {
+        return ids == null ? null : (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Article> hasCategory(String categoryId) {
+        if (categoryId == null || categoryId.isBlank()) {
+            return null;
+        }
+        return hasAnyCategory(List.of(categoryId));
+    }
+
+    /**
+     * 属于任一指定分类；通过 article_category 子查询过滤，不会因多个分类命中而产生重复行
+     */
+    public static Specification<Article> hasAnyCategory(Collection<String> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<String> matched = query.subquery(String.class);
+            Root<Article> article = matched.from(Article.class);
+            Join<Article, Category> categories = article.join("categories");
+            matched.select(article.get("id")).where(categories.get("id").in(categoryIds));
+            return root.get("id").in(matched);
+        };
+    }
+
+    public static Specification<Article> hasAuthor(String author) {
+        if (author == null || author.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("author"), author.trim());
+    }
+
+    /**
+     * 键集分页条件：排在游标之后的文章，即 createTime < t 或 (createTime = t 且 id < id)
+     * 需配合 createTime、id 倒序排序使用
+     */
+    public static Specification<Article> createdBefore(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.get("createTime"), cursor.time()),
+            cb.and(
+                cb.equal(root.get("createTime"), cursor.time()),
+                cb.lessThan(root.get("id"), cursor.id())));
+    }
+
+    public static Specification<Article> hasStatus(ArticleStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
@@ -0,0 +1,43 @@
+package org.Zewang.myBlog.repository;
+
+import java.util.List;
+import org.Zewang.myBlog.dto.ArticleSummaryDTO;
+import org.Zewang.myBlog.model.Article;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 文章摘要查询，只查询列表展示需要的列（或只查询ID），不读取文章正文
+ * @email "Zewang0217@outlook.com"
+ */
+public interface ArticleSummaryRepository {
+
+    /**
+     * 按条件查询文章摘要
+     * @param spec 查询条件，可为 null
+     * @param sort 排序
+     * @param limit 最多返回的条数，小于等于0表示不限
+     * @return 文章摘要列表
+     */
+    List<ArticleSummaryDTO> findSummaries(Specification<Article> spec, Sort sort, int limit);
+
+    /**
+     * 按条件分页查询文章摘要
+     * @param spec 查询条件，可为 null
+     * @param pageable 分页和排序
+     * @return 文章摘要分页
+     */
+    Page<ArticleSummaryDTO> findSummaries(Specification<Article> spec, Pageable pageable);
+
+    /**
+     * 按条件查询文章ID，只选取ID列
+     * @param spec 查询条件，可为 null
+     * @param sort 排序
+     * @return 排序后的文章ID
+     */
+    List<String> findIds(Specification<Article> spec, Sort sort);
+}
@@ -0,0 +1,154 @@
+package org.Zewang.myBlog.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.Zewang.myBlog.dto.ArticleSummaryDTO;
+import org.Zewang.myBlog.model.Article;
+import org.Zewang.myBlog.model.Category;
+import org.Zewang.myBlog.model.enums.ArticleStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: {@link ArticleSummaryRepository} 的实现
+ *               第一条查询只选取摘要列，第二条查询按本页文章ID批量抓取分类
+ * @email "Zewang0217@outlook.com"
+ */
+class ArticleSummaryRepositoryImpl implements ArticleSummaryRepository {
+
+    private static final String[] COLUMNS = {
+        "id", "title", "excerpt", "author", "createTime", "updateTime",
+        "status", "commentCount", "likeCount", "viewCount"
+    };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ArticleSummaryDTO> findSummaries(Specification<Article> spec, Sort sort, int limit) {
+        TypedQuery<Tuple> query = entityManager.createQuery(buildQuery(spec, sort));
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return toSummaries(query.getResultList());
+    }
+
+    @Override
+    public Page<ArticleSummaryDTO> findSummaries(Specification<Article> spec, Pageable pageable) {
+        TypedQuery<Tuple> query = entityManager.createQuery(buildQuery(spec, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<ArticleSummaryDTO> content = toSummaries(query.getResultList());
+        if (pageable.isUnpaged()
+            || (pageable.getOffset() == 0 && content.size() < pageable.getPageSize())) {
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        return new PageImpl<>(content, pageable, count(spec));
+    }
+
+    @Override
+    public List<String> findIds(Specification<Article> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Article> root = query.from(Article.class);
+        query.select(root.get("id"));
+        // 各条件都为空时组合出的 Specification 返回 null 谓词
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private CriteriaQuery<Tuple> buildQuery(Specification<Article> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Article> root = query.from(Article.class);
+        query.multiselect(Arrays.stream(COLUMNS)
+            .<Selection<?>>map(column -> root.get(column).alias(column))
+            .toList());
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    private long count(Specification<Article> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Article> root = query.from(Article.class);
+        query.select(cb.count(root));
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<ArticleSummaryDTO> toSummaries(List<Tuple> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> ids = rows.stream().map(row -> row.get("id", String.class)).toList();
+        Map<String, List<Category>> categories = findCategories(ids);
+
+        List<ArticleSummaryDTO> summaries = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            String id = row.get("id", String.class);
+            summaries.add(new ArticleSummaryDTO(
+                id,
+                row.get("title", String.class),
+                row.get("excerpt", String.class),
+                row.get("author", String.class),
+                row.get("createTime", LocalDateTime.class),
+                row.get("updateTime", LocalDateTime.class),
+                row.get("status", ArticleStatus.class),
+                row.get("commentCount", Integer.class),
+                row.get("likeCount", Integer.class),
+                row.get("viewCount", Integer.class),
+                categories.getOrDefault(id, new ArrayList<>())));
+        }
+        return summaries;
+    }
+
+    /**
+     * 一次查询抓取多篇文章的分类
+     */
+    private Map<String, List<Category>> findCategories(List<String> articleIds) {
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT a.id, c FROM Article a JOIN a.categories c WHERE a.id IN :ids", Object[].class)
+            .setParameter("ids", articleIds)
+            .getResultList();
+        Map<String, List<Category>> categories = new HashMap<>();
+        for (Object[] row : rows) {
+            categories.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add((Category) row[1]);
+        }
+        return categories;
+    }
+}
@@ -1,9 +1,16 @@
 package org.Zewang.myBlog.repository;
 
 import org.Zewang.myBlog.model.Category;
+import org.Zewang.myBlog.model.enums.ArticleStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,4 +22,35 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, String> {
     Optional<Category> findByName(String name);
     boolean existsByName(String name);
+
+    /**
+     * 调整分类下的已发布文章数，直接在数据库中增减，避免并发写入互相覆盖
+     * @param ids 分类ID
+     * @param delta 增量，可为负数
+     * @return 受影响的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Category c SET c.articleCount = COALESCE(c.articleCount, 0) + :delta WHERE c.id IN :ids")
+    int adjustArticleCount(@Param("ids") Collection<String> ids, @Param("delta") int delta);
+
+    /**
+     * 按 article_category 重新统计每个分类下指定状态的文章数，用于修正计数偏差
+     * @param status 文章状态
+     * @return 受影响的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Category c SET c.articleCount = "
+        + "(SELECT COUNT(a) FROM Article a JOIN a.categories ac WHERE ac.id = c.id AND a.status = :status)")
+    int recalculateArticleCounts(@Param("status") ArticleStatus status);
+
+    /**
+     * 统计每个分类下的文章数（不区分状态），没有文章的分类数量为0
+     * @return 每行为 [分类名称, 数量]，按分类创建时间排序
+     */
+    @Query(value = "SELECT c.name, COUNT(ac.article_id) FROM categories c "
+        + "LEFT JOIN article_category ac ON ac.category_id = c.id "
+        + "GROUP BY c.id, c.name ORDER BY c.create_time", nativeQuery = true)
+    List<Object[]> countArticlesGroupByCategory();
 }
@@ -0,0 +1,159 @@
+package org.Zewang.myBlog.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.Zewang.myBlog.model.Comment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 评论批量审核的数据访问
+ *               按ID修改状态和重算文章评论数都使用 JDBC 批量执行，按筛选条件修改状态只需一条 UPDATE；
+ *               需在调用方的事务中执行，与 JPA 共用同一个连接
+ * @email "Zewang0217@outlook.com"
+ */
+@Repository
+public class CommentBulkRepository {
+
+    // 每批的语句数，也是 IN 查询每次携带的参数个数（SQLite 默认最多 999 个参数）
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量审核的筛选条件，字段为空表示不限
+     * @param status 当前状态
+     * @param articleId 文章ID
+     * @param userId 用户ID
+     */
+    public record Filter(Integer status, String articleId, String userId) {
+
+        public boolean isEmpty() {
+            return status == null && isBlank(articleId) && isBlank(userId);
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+    }
+
+    public CommentBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 查询指定评论中状态不等于 status 的评论所属的文章ID，即状态修改后评论数可能变化的文章
+     * @param ids 评论ID
+     * @param status 新状态
+     * @return 文章ID
+     */
+    public Set<String> findArticleIdsByIds(List<String> ids, int status) {
+        Set<String> articleIds = new LinkedHashSet<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.addAll(chunk);
+            args.add(status);
+            articleIds.addAll(jdbcTemplate.queryForList(
+                "SELECT DISTINCT article_id FROM comments WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?"))
+                    + ") AND status <> ?",
+                String.class, args.toArray()));
+        }
+        return articleIds;
+    }
+
+    /**
+     * 按ID批量修改评论状态，状态未变化的评论不更新
+     * @param ids 评论ID
+     * @param status 新状态
+     * @param updateTime 更新时间
+     * @return 实际修改的评论数
+     */
+    public int updateStatusByIds(List<String> ids, int status, LocalDateTime updateTime) {
+        Timestamp time = Timestamp.valueOf(updateTime);
+        int[][] counts = jdbcTemplate.batchUpdate(
+            "UPDATE comments SET status = ?, update_time = ? WHERE id = ? AND status <> ?",
+            ids, BATCH_SIZE, (ps, id) -> {
+                ps.setInt(1, status);
+                ps.setTimestamp(2, time);
+                ps.setString(3, id);
+                ps.setInt(4, status);
+            });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * 查询符合筛选条件且状态不等于 status 的评论所属的文章ID
+     * @param filter 筛选条件
+     * @param status 新状态
+     * @return 文章ID
+     */
+    public Set<String> findArticleIdsByFilter(Filter filter, int status) {
+        List<Object> args = new ArrayList<>();
+        String where = where(filter, status, args);
+        return new LinkedHashSet<>(jdbcTemplate.queryForList(
+            "SELECT DISTINCT article_id FROM comments" + where, String.class, args.toArray()));
+    }
+
+    /**
+     * 按筛选条件修改评论状态，状态未变化的评论不更新
+     * @param filter 筛选条件
+     * @param status 新状态
+     * @param updateTime 更新时间
+     * @return 实际修改的评论数
+     */
+    public int updateStatusByFilter(Filter filter, int status, LocalDateTime updateTime) {
+        List<Object> args = new ArrayList<>();
+        args.add(status);
+        args.add(Timestamp.valueOf(updateTime));
+        String where = where(filter, status, args);
+        return jdbcTemplate.update("UPDATE comments SET status = ?, update_time = ?" + where, args.toArray());
+    }
+
+    /**
+     * 按正常状态的评论重新统计文章评论数，每篇文章一条语句，批量执行
+     * @param articleIds 文章ID
+     */
+    public void recountComments(Collection<String> articleIds) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE articles SET comment_count = (SELECT COUNT(*) FROM comments c "
+                + "WHERE c.article_id = articles.id AND c.status = ?) WHERE id = ?",
+            new ArrayList<>(articleIds), BATCH_SIZE, (ps, articleId) -> {
+                ps.setInt(1, Comment.STATUS_NORMAL);
+                ps.setString(2, articleId);
+            });
+    }
+
+    private static String where(Filter filter, int status, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE status <> ?");
+        args.add(status);
+        if (filter.status() != null) {
+            where.append(" AND status = ?");
+            args.add(filter.status());
+        }
+        if (!Filter.isBlank(filter.articleId())) {
+            where.append(" AND article_id = ?");
+            args.add(filter.articleId().trim());
+        }
+        if (!Filter.isBlank(filter.userId())) {
+            where.append(" AND user_id = ?");
+            args.add(filter.userId().trim());
+        }
+        return where.toString();
+    }
+}
@@ -1,9 +1,18 @@
 package org.Zewang.myBlog.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.Zewang.myBlog.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author "Zewang"
@@ -12,7 +21,20 @@ import org.springframework.stereotype.Repository;
  * @email "Zewang0217@outlook.com"
  */
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, String> {
+public interface CommentRepository extends JpaRepository<Comment, String>, JpaSpecificationExecutor<Comment> {
+
+    /**
+     * 可见评论：本身正常（0），或者已删除（1）但仍有正常的后代评论（以占位节点展示），与 CommentThreadBuilder 的规则一致；
+     * 待审核（2）的评论及其回复都不可见，递归只沿已删除的评论向下查找，只在评论本身已删除时执行
+     */
+    String VISIBLE = "(c.status = 0 OR (c.status = 1 AND EXISTS (WITH RECURSIVE d(id, status) AS ("
+        + "SELECT r.id, r.status FROM comments r WHERE r.article_id = c.article_id AND r.parent_id = c.id "
+        + "UNION ALL SELECT r.id, r.status FROM comments r JOIN d ON r.parent_id = d.id "
+        + "WHERE d.status = 1 AND r.article_id = c.article_id) "
+        + "SELECT 1 FROM d WHERE d.status = 0)))";
+
+    String COLUMNS = "c.id, c.article_id, c.user_id, c.username, c.content, c.parent_id, c.status, c.likes, "
+        + "c.create_time, c.update_time";
     
     /**
      * 根据文章ID查询评论列表
@@ -24,10 +46,17 @@ public interface CommentRepository extends JpaRepository<Comment, String> {
     /**
      * 根据文章ID和状态查询评论列表
      * @param articleId 文章ID
-     * @param status 评论状态：0-正常，1-已删除
+     * @param status 评论状态：0-正常，1-已删除，2-待审核
      * @return 评论列表
      */
     List<Comment> findByArticleIdAndStatusOrderByCreateTimeDesc(String articleId, Integer status);
+
+    /**
+     * 查询文章的全部评论（包括已删除的），按创建时间正序，用于构建评论树
+     * @param articleId 文章ID
+     * @return 评论列表
+     */
+    List<Comment> findByArticleIdOrderByCreateTimeAscIdAsc(String articleId);
     
     /**
      * 根据文章ID和父评论ID查询评论列表
@@ -37,6 +66,126 @@ public interface CommentRepository extends JpaRepository<Comment, String> {
      */
     List<Comment> findByArticleIdAndParentIdOrderByCreateTimeAsc(String articleId, String parentId);
     
+    /**
+     * 分页查询文章的顶级评论，按创建时间倒序（第一页）
+     * @param articleId 文章ID
+     * @param pageable 只使用其中的数量限制
+     * @return 顶级评论列表
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM comments c WHERE c.article_id = :articleId AND c.parent_id IS NULL AND "
+        + VISIBLE + " ORDER BY c.create_time DESC, c.id DESC", nativeQuery = true)
+    List<Comment> findThreadRoots(@Param("articleId") String articleId, Pageable pageable);
+
+    /**
+     * 分页查询文章中排在游标之后的顶级评论，按创建时间倒序
+     * @param articleId 文章ID
+     * @param time 游标时间
+     * @param id 游标评论ID
+     * @param pageable 只使用其中的数量限制
+     * @return 顶级评论列表
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM comments c WHERE c.article_id = :articleId AND c.parent_id IS NULL AND "
+        + VISIBLE + " AND (c.create_time < :time OR (c.create_time = :time AND c.id < :id))"
+        + " ORDER BY c.create_time DESC, c.id DESC", nativeQuery = true)
+    List<Comment> findThreadRootsBefore(@Param("articleId") String articleId, @Param("time") LocalDateTime time,
+                                        @Param("id") String id, Pageable pageable);
+
+    /**
+     * 分页查询评论的直接回复，按创建时间正序（第一页）
+     * @param articleId 文章ID
+     * @param parentId 父评论ID
+     * @param pageable 只使用其中的数量限制
+     * @return 回复列表
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM comments c WHERE c.article_id = :articleId AND c.parent_id = :parentId AND "
+        + VISIBLE + " ORDER BY c.create_time ASC, c.id ASC", nativeQuery = true)
+    List<Comment> findReplies(@Param("articleId") String articleId, @Param("parentId") String parentId,
+                              Pageable pageable);
+
+    /**
+     * 分页查询评论中排在游标之后的直接回复，按创建时间正序
+     * @param articleId 文章ID
+     * @param parentId 父评论ID
+     * @param time 游标时间
+     * @param id 游标评论ID
+     * @param pageable 只使用其中的数量限制
+     * @return 回复列表
+     */
+    @Query(value = "SELECT " + COLUMNS + " FROM comments c WHERE c.article_id = :articleId AND c.parent_id = :parentId AND "
+        + VISIBLE + " AND (c.create_time > :time OR (c.create_time = :time AND c.id > :id))"
+        + " ORDER BY c.create_time ASC, c.id ASC", nativeQuery = true)
+    List<Comment> findRepliesAfter(@Param("articleId") String articleId, @Param("parentId") String parentId,
+                                   @Param("time") LocalDateTime time, @Param("id") String id, Pageable pageable);
+
+    /**
+     * 一次查询多条评论各自最早的若干条直接回复
+     * @param articleId 文章ID
+     * @param parentIds 父评论ID集合
+     * @param limit 每条评论最多返回的回复数
+     * @return 回复列表，按父评论分组、组内按创建时间正序
+     */
+    @Query(value = "SELECT t.id, t.article_id, t.user_id, t.username, t.content, t.parent_id, t.status, t.likes, "
+        + "t.create_time, t.update_time FROM ("
+        + "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.parent_id ORDER BY c.create_time, c.id) AS rn "
+        + "FROM comments c WHERE c.article_id = :articleId AND c.parent_id IN (:parentIds) AND " + VISIBLE
+        + ") t WHERE t.rn <= :limit ORDER BY t.parent_id, t.rn", nativeQuery = true)
+    List<Comment> findFirstRepliesByParentIds(@Param("articleId") String articleId,
+                                              @Param("parentIds") Collection<String> parentIds,
+                                              @Param("limit") int limit);
+
+    /**
+     * 统计多条评论各自的可见直接回复数
+     * @param articleId 文章ID
+     * @param parentIds 父评论ID集合
+     * @return 每行为 [父评论ID, 回复数]，没有回复的评论不返回
+     */
+    @Query(value = "SELECT c.parent_id, COUNT(*) FROM comments c WHERE c.article_id = :articleId "
+        + "AND c.parent_id IN (:parentIds) AND " + VISIBLE + " GROUP BY c.parent_id", nativeQuery = true)
+    List<Object[]> countRepliesByParentIds(@Param("articleId") String articleId,
+                                           @Param("parentIds") Collection<String> parentIds);
+
+    /**
+     * 判断评论是否存在且属于指定文章
+     * @param id 评论ID
+     * @param articleId 文章ID
+     * @return 是否存在
+     */
+    boolean existsByIdAndArticleId(String id, String articleId);
+
+    /**
+     * 只查询评论所属的文章ID
+     * @param id 评论ID
+     * @return 文章ID
+     */
+    @Query("SELECT c.articleId FROM Comment c WHERE c.id = :id")
+    Optional<String> findArticleIdById(@Param("id") String id);
+
+    /**
+     * 更新评论状态，状态未变化时不更新
+     * 执行后清空持久化上下文，避免之前加载的评论实体在提交时覆盖本次更新
+     * @param id 评论ID
+     * @param status 新状态
+     * @param updateTime 更新时间
+     * @return 受影响的行数，评论不存在或状态未变化时为0
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Comment c SET c.status = :status, c.updateTime = :updateTime WHERE c.id = :id AND c.status <> :status")
+    int updateStatus(@Param("id") String id, @Param("status") Integer status,
+                     @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 仅当评论处于指定状态时更新状态，用于需要根据原状态调整评论数的场景
+     * @param id 评论ID
+     * @param from 原状态
+     * @param to 新状态
+     * @param updateTime 更新时间
+     * @return 受影响的行数，评论不存在或不处于原状态时为0
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Comment c SET c.status = :to, c.updateTime = :updateTime WHERE c.id = :id AND c.status = :from")
+    int updateStatusFrom(@Param("id") String id, @Param("from") Integer from, @Param("to") Integer to,
+                         @Param("updateTime") LocalDateTime updateTime);
+
     /**
      * 根据用户ID查询评论列表
      * @param userId 用户ID
@@ -50,17 +199,35 @@ public interface CommentRepository extends JpaRepository<Comment, String> {
      * @return 评论数量
      */
     long countByArticleIdAndStatus(String articleId, Integer status);
+
+    /**
+     * 按状态分组统计评论数
+     * @return 每行为 [状态, 数量]
+     */
+    @Query("SELECT c.status, COUNT(c) FROM Comment c GROUP BY c.status")
+    List<Object[]> countGroupByStatus();
+
+    /**
+     * 统计指定状态的评论数，由 status、create_time 索引支撑
+     * @param status 评论状态
+     * @return 评论数量
+     */
+    long countByStatus(Integer status);
     
     /**
      * 获取最近的评论
-     * @param limit 限制数量
+     * @param pageable 只使用其中的数量限制
      * @return 最近评论列表
      */
-    List<Comment> findTop10ByOrderByCreateTimeDesc();
-    
+    List<Comment> findAllByOrderByCreateTimeDescIdDesc(Pageable pageable);
+
     /**
-     * 获取所有评论
-     * @return 所有评论列表
+     * 早期版本以用户名作为评论的 userId，替换为对应的用户ID
+     * @return 受影响的行数
      */
-    List<Comment> findAllByOrderByCreateTimeDesc();
+    @Transactional
+    @Modifying
+    @Query("UPDATE Comment c SET c.userId = (SELECT u.id FROM User u WHERE u.username = c.userId) "
+        + "WHERE c.userId IN (SELECT u.username FROM User u)")
+    int replaceUsernameUserIds();
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package org.Zewang.myBlog.repository;
+
+import org.Zewang.myBlog.common.pagination.KeysetCursor;
+import org.Zewang.myBlog.model.Comment;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 评论查询条件，供 {@link CommentRepository} 组合成评论审核列表的查询
+ *               参数为空时返回 null，Specification 组合时会自动忽略该条件
+ * @email "Zewang0217@outlook.com"
+ */
+public final class CommentSpecifications {
+
+    private CommentSpecifications() {
+    }
+
+    public static Specification<Comment> hasStatus(Integer status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Comment> hasArticle(String articleId) {
+        if (articleId == null || articleId.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("articleId"), articleId.trim());
+    }
+
+    public static Specification<Comment> hasUser(String userId) {
+        if (userId == null || userId.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId.trim());
+    }
+
+    /**
+     * 键集分页条件：排在游标之后的评论，即 createTime < t 或 (createTime = t 且 id < id)
+     * 需配合 createTime、id 倒序排序使用
+     */
+    public static Specification<Comment> createdBefore(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.get("createTime"), cursor.time()),
+            cb.and(
+                cb.equal(root.get("createTime"), cursor.time()),
+                cb.lessThan(root.get("id"), cursor.id())));
+    }
+}
@@ -3,7 +3,11 @@ package org.Zewang.myBlog.repository;
 import java.util.List;
 import org.Zewang.myBlog.model.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author "Zewang"
@@ -21,6 +25,14 @@ public interface LikeRepository extends JpaRepository<Like, String> {
      * @return 点赞记录
      */
     Like findByUserIdAndArticleId(String userId, String articleId);
+
+    /**
+     * 判断用户是否已点赞文章
+     * @param userId 用户ID
+     * @param articleId 文章ID
+     * @return 是否已点赞
+     */
+    boolean existsByUserIdAndArticleId(String userId, String articleId);
     
     /**
      * 根据文章ID查询点赞列表
@@ -44,9 +56,22 @@ public interface LikeRepository extends JpaRepository<Like, String> {
     long countByArticleId(String articleId);
     
     /**
-     * 删除用户对文章的点赞
+     * 删除用户对文章的点赞，直接执行 DELETE 而不先加载点赞记录
      * @param userId 用户ID
      * @param articleId 文章ID
+     * @return 删除的行数，未点赞时为0
+     */
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.userId = :userId AND l.articleId = :articleId")
+    int deleteByUserIdAndArticleId(@Param("userId") String userId, @Param("articleId") String articleId);
+
+    /**
+     * 早期版本以用户名作为点赞的 userId，替换为对应的用户ID
+     * @return 受影响的行数
      */
-    void deleteByUserIdAndArticleId(String userId, String articleId);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Like l SET l.userId = (SELECT u.id FROM User u WHERE u.username = l.userId) "
+        + "WHERE l.userId IN (SELECT u.username FROM User u)")
+    int replaceUsernameUserIds();
 }
\ No newline at end of file
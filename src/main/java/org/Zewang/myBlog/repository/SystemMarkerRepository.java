@@ -0,0 +1,15 @@
+package org.Zewang.myBlog.repository;
+
+import org.Zewang.myBlog.model.SystemMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 系统标记数据访问层
+ * @email "Zewang0217@outlook.com"
+ */
+@Repository
+public interface SystemMarkerRepository extends JpaRepository<SystemMarker, String> {
+}
@@ -2,8 +2,11 @@ package org.Zewang.myBlog.repository;
 
 import org.Zewang.myBlog.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,4 +18,22 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    /**
+     * 查询所有用户的令牌版本
+     * @return 每行为 [用户ID, 令牌版本]
+     */
+    @Query("SELECT u.id, u.tokenVersion FROM User u")
+    List<Object[]> findTokenVersions();
+
+    /**
+     * 按天统计注册人数
+     * SQLite 中 create_time 以毫秒时间戳存储，加上时区偏移后整除一天的毫秒数即为本地日期的 epochDay
+     * @param since 起始时间（毫秒时间戳）
+     * @param offsetMillis 本地时区相对 UTC 的偏移（毫秒）
+     * @return 每行为 [epochDay, 数量]
+     */
+    @Query(value = "SELECT (create_time + :offset) / 86400000 AS day, COUNT(*) FROM users "
+        + "WHERE create_time >= :since GROUP BY day", nativeQuery = true)
+    List<Object[]> countRegistrationsByDay(@Param("since") long since, @Param("offset") long offsetMillis);
 }
@@ -0,0 +1,21 @@
+package org.Zewang.myBlog.service.activity;
+
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.dto.ActivityDTO;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 管理后台动态服务接口
+ * @email "Zewang0217@outlook.com"
+ */
+public interface ActivityService {
+
+    /**
+     * 按时间倒序游标分页获取评论、点赞、文章发布和用户注册合并后的动态
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param limit 每页数量
+     * @return 动态分页
+     */
+    CursorPage<ActivityDTO> getRecentActivities(String cursor, int limit);
+}
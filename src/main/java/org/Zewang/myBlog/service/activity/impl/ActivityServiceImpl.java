@@ -0,0 +1,99 @@
+package org.Zewang.myBlog.service.activity.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import lombok.RequiredArgsConstructor;
+import org.Zewang.myBlog.common.exception.ValidationException;
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.common.pagination.KeysetCursor;
+import org.Zewang.myBlog.dto.ActivityDTO;
+import org.Zewang.myBlog.repository.ActivityRepository;
+import org.Zewang.myBlog.repository.ActivityRepository.Source;
+import org.Zewang.myBlog.service.activity.ActivityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 管理后台动态服务实现
+ *               每类动态各查询最新的 limit + 1 条（已按时间倒序），再用小顶堆做多路归并，
+ *               只取前 limit + 1 条；动态按 (时间, 类型, ID) 倒序排列，游标记录最后一条的这三个值
+ * @email "Zewang0217@outlook.com"
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityServiceImpl implements ActivityService {
+    private static final Logger log = LoggerFactory.getLogger(ActivityServiceImpl.class);
+
+    private static final char KEY_SEPARATOR = ':';
+
+    // 同一时刻的动态按类型、ID倒序，与游标条件保持一致
+    private static final Comparator<ActivityDTO> NEWEST_FIRST = Comparator
+        .comparing(ActivityDTO::createTime)
+        .thenComparing(ActivityDTO::type)
+        .thenComparing(ActivityDTO::id)
+        .reversed();
+
+    private final ActivityRepository activityRepository;
+
+    private record Head(ActivityDTO activity, Iterator<ActivityDTO> rest) {
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ActivityDTO> getRecentActivities(String cursor, int limit) {
+        log.info("获取最近动态，cursor：{}，limit：{}", cursor, limit);
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        String cursorType = null;
+        String cursorId = null;
+        if (before != null) {
+            int index = before.id().indexOf(KEY_SEPARATOR);
+            cursorType = index > 0 ? before.id().substring(0, index) : null;
+            cursorId = before.id().substring(index + 1);
+            if (Source.ofType(cursorType) == null) {
+                throw new ValidationException("无效的分页游标");
+            }
+        }
+
+        PriorityQueue<Head> heads = new PriorityQueue<>(Source.values().length,
+            Comparator.comparing(Head::activity, NEWEST_FIRST));
+        for (Source source : Source.values()) {
+            LocalDateTime time = before != null ? before.time() : null;
+            String idBound = before != null ? idBound(source, cursorType, cursorId) : null;
+            Iterator<ActivityDTO> rows = activityRepository.findLatest(source, time, idBound, limit + 1).iterator();
+            if (rows.hasNext()) {
+                heads.add(new Head(rows.next(), rows));
+            }
+        }
+
+        List<ActivityDTO> merged = new ArrayList<>(limit + 1);
+        while (merged.size() <= limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.activity());
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        return CursorPage.of(merged, limit,
+            activity -> new KeysetCursor(activity.createTime(), activity.type() + KEY_SEPARATOR + activity.id()));
+    }
+
+    /**
+     * 与游标时间相同的动态中，排在游标之后的ID上界：
+     * 类型排在游标类型之后的全部保留，排在之前的全部排除，类型相同的按ID比较
+     */
+    private static String idBound(Source source, String cursorType, String cursorId) {
+        int order = source.type().compareTo(cursorType);
+        if (order < 0) {
+            return String.valueOf(Character.MAX_VALUE);
+        }
+        return order > 0 ? "" : cursorId;
+    }
+}
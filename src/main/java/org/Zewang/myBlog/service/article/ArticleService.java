@@ -1,11 +1,16 @@
 package org.Zewang.myBlog.service.article;
 
 import java.util.Set;
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.dto.ArticleDetailDTO;
+import org.Zewang.myBlog.dto.ArticleSummaryDTO;
 import org.Zewang.myBlog.dto.CreateArticleDTO;
 import org.Zewang.myBlog.model.Article;
+import org.Zewang.myBlog.model.enums.ArticleStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -13,23 +18,43 @@ import java.util.Optional;
  */
 public interface ArticleService {
     /**
-     * 获取所有文章
+     * 获取所有文章（摘要，不含正文）
      */
-    List<Article> getAllArticles();
+    List<ArticleSummaryDTO> getAllArticles();
 
     /**
-     * 获取已发布文章
+     * 获取已发布文章（摘要，不含正文）
      */
-    public List<Article> getPublishedArticles();
-        /**
-         * 通过分类ID获取文章
-         */
-    List<Article> getArticlesByCategoryIds(Set<String> categoryIds);
+    public List<ArticleSummaryDTO> getPublishedArticles();
 
     /**
-     * 根据ID获取文章
+     * 获取草稿文章（摘要，不含正文）
      */
-    Optional<Article> getById(String id);
+    List<ArticleSummaryDTO> getDraftArticles();
+
+    /**
+     * 通过分类ID获取文章
+     */
+    List<ArticleSummaryDTO> getArticlesByCategoryIds(Set<String> categoryIds);
+
+    /**
+     * 分页获取指定分类下的已发布文章
+     */
+    Page<ArticleSummaryDTO> getPublishedArticlesByCategoryIds(Set<String> categoryIds, Pageable pageable);
+
+    /**
+     * 按 (创建时间, ID) 倒序游标分页获取文章，翻页深度不影响查询成本
+     * @param status 文章状态，为空表示不限
+     * @param categoryIds 分类ID，为空表示不限
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     */
+    CursorPage<ArticleSummaryDTO> getArticlesByCursor(ArticleStatus status, Set<String> categoryIds, String cursor, int size);
+
+    /**
+     * 根据ID获取文章详情
+     */
+    Optional<ArticleDetailDTO> getById(String id);
 
     /**
      * 创建文章
@@ -51,10 +76,20 @@ public interface ArticleService {
      */
     Article publishArticle(String id);
 
+    /**
+     * 增加文章阅读数
+     */
+    void increaseViewCount(String id);
+
     /**
      * 检索文章
      */
-    List<Article> searchArticles(String keyword);
+    List<ArticleSummaryDTO> searchArticles(String keyword);
+
+    /**
+     * 按关键词和分类检索已发布文章，条件均可为空
+     */
+    List<ArticleSummaryDTO> searchPublishedArticles(String keyword, Set<String> categoryIds);
     
     /**
      * 统计方法
@@ -64,7 +99,5 @@ public interface ArticleService {
     long countPublishedArticles();
     
     long countDraftArticles();
-    
-    List<Map<String, Object>> getArticleCategoryStats();
 
 }
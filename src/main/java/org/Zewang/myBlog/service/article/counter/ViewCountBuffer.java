@@ -0,0 +1,106 @@
+package org.Zewang.myBlog.service.article.counter;
+
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 文章阅读数的写缓冲
+ *               阅读文章只在内存中累加增量，不在请求线程上占用写连接，
+ *               由定时任务合并后批量写回，每篇文章每个周期只执行一次 UPDATE ... SET view_count = view_count + ?；
+ *               进程异常退出会丢失尚未写回的阅读数
+ * @email "Zewang0217@outlook.com"
+ */
+@Component
+public class ViewCountBuffer {
+    private static final Logger log = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+    private final ArticleRepository articleRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 文章ID -> 尚未写回的阅读数
+    private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+
+    // 保证同一时刻只有一次写回，用 ReentrantLock 以免虚拟线程在等待数据库时固定住载体线程
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ViewCountBuffer(ArticleRepository articleRepository, TransactionTemplate transactionTemplate) {
+        this.articleRepository = articleRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 阅读数加一
+     * @param articleId 文章ID
+     */
+    public void increment(String articleId) {
+        merge(articleId, 1L);
+    }
+
+    private void merge(String articleId, long delta) {
+        pending.merge(articleId, delta, Long::sum);
+    }
+
+    /**
+     * 将累积的阅读数写回数据库，所有文章在同一个事务中提交
+     * @return 写回的文章数
+     */
+    @Scheduled(fixedDelayString = "${blog.article.view-flush-interval-ms:5000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            return flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushPending() {
+        // remove 是原子操作，取出后新的阅读会累加到新的条目上，不会丢失
+        Map<String, Long> batch = new HashMap<>();
+        for (String articleId : pending.keySet()) {
+            Long delta = pending.remove(articleId);
+            if (delta != null && delta != 0) {
+                batch.put(articleId, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                batch.forEach(articleRepository::addViewCount));
+        } catch (DataAccessException | TransactionException e) {
+            // 数据库忙或获取连接超时时把增量放回缓冲区，下个周期重试
+            batch.forEach(this::merge);
+            log.warn("阅读数写回失败，{}篇文章的增量将在下次重试：{}", batch.size(), e.getMessage());
+            return 0;
+        }
+        log.debug("阅读数写回完成，文章数：{}", batch.size());
+        return batch.size();
+    }
+
+    /**
+     * 应用关闭前写回剩余的阅读数
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -1,9 +1,8 @@
 package org.Zewang.myBlog.service.article.impl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -11,16 +10,37 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.Zewang.myBlog.common.exception.BusinessException;
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.common.pagination.KeysetCursor;
+import org.Zewang.myBlog.config.CacheConfig;
+import org.Zewang.myBlog.dto.ArticleDetailDTO;
+import org.Zewang.myBlog.dto.ArticleSummaryDTO;
 import org.Zewang.myBlog.dto.CreateArticleDTO;
 import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.model.Category;
+import org.Zewang.myBlog.model.SystemMarker;
 import org.Zewang.myBlog.model.enums.ArticleStatus;
 import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.repository.ArticleSpecifications;
 import org.Zewang.myBlog.repository.CategoryRepository;
+import org.Zewang.myBlog.repository.SystemMarkerRepository;
 import org.Zewang.myBlog.service.article.ArticleService;
-import org.springframework.cache.annotation.CacheEvict;
+import org.Zewang.myBlog.service.article.counter.ViewCountBuffer;
+import org.Zewang.myBlog.service.search.index.ArticleSearchIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,12 +54,27 @@ public class ArticleServiceImpl implements ArticleService {
     private static final Logger log = LoggerFactory.getLogger(ArticleServiceImpl.class);
     private final ArticleRepository articleRepository;
     private final CategoryRepository categoryRepository;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final ViewCountBuffer viewCountBuffer;
+    private final CacheManager cacheManager;
+    private final SystemMarkerRepository systemMarkerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 已发布的历史文章已补充发布时间的标记，存在时启动不再扫描文章表
+    static final String PUBLISH_TIMES_FILLED = "article-publish-times-filled";
+
+    /**
+     * 游标分页的排序，需与 {@link ArticleSpecifications#createdBefore} 的比较条件一致
+     */
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createTime", "id");
 
     @Override
-    public List<Article> getAllArticles() {
+    @Cacheable(value = CacheConfig.ARTICLE_LISTS, key = "'all'")
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> getAllArticles() {
         log.info("获取所有文章");
         try {
-            return articleRepository.findAll();
+            return articleRepository.findSummaries(null, Sort.unsorted(), 0);
         } catch (Exception e) {
             log.error("获取文章列表失败", e);
             String message = e.getMessage();
@@ -51,10 +86,13 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    public List<Article> getPublishedArticles() {
+    @Cacheable(value = CacheConfig.ARTICLE_LISTS, key = "'published'")
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> getPublishedArticles() {
         log.info("获取已发布的文章");
         try {
-            return articleRepository.findByStatus(ArticleStatus.PUBLISHED);
+            return articleRepository.findSummaries(
+                ArticleSpecifications.hasStatus(ArticleStatus.PUBLISHED), Sort.unsorted(), 0);
         } catch (Exception e) {
             log.error("获取已发布文章列表失败", e);
             throw new BusinessException("获取已发布文章列表失败: " + e.getMessage());
@@ -62,7 +100,22 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    public List<Article> getArticlesByCategoryIds(Set<String> categoryIds) {
+    @Cacheable(value = CacheConfig.ARTICLE_LISTS, key = "'drafts'")
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> getDraftArticles() {
+        log.info("获取草稿文章");
+        try {
+            return articleRepository.findSummaries(
+                ArticleSpecifications.hasStatus(ArticleStatus.DRAFT), Sort.unsorted(), 0);
+        } catch (Exception e) {
+            log.error("获取草稿文章列表失败", e);
+            throw new BusinessException("获取草稿文章列表失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> getArticlesByCategoryIds(Set<String> categoryIds) {
         log.info("根据分类ID获取文章, categoryIds={}", categoryIds);
 
         if (categoryIds == null || categoryIds.isEmpty()) {
@@ -71,13 +124,9 @@ public class ArticleServiceImpl implements ArticleService {
         }
 
         try {
-            // 获取所有文章并筛选
-            List<Article> allArticles = getAllArticles();
-            return allArticles.stream()
-                .filter(article -> article.getCategories() != null &&
-                    article.getCategories().stream()
-                        .anyMatch(category -> categoryIds.contains(category.getId())))
-                .collect(Collectors.toList());
+            // 通过 article_category 子查询筛选，分类按本批文章ID一次性抓取
+            return articleRepository.findSummaries(ArticleSpecifications.hasAnyCategory(categoryIds),
+                Sort.by(Sort.Direction.DESC, "createTime"), 0);
         } catch (Exception e) {
             log.error("根据分类获取文章列表失败", e);
             throw new BusinessException("获取文章列表失败: " + e.getMessage());
@@ -85,7 +134,43 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    public Optional<Article> getById(String id) {
+    @Transactional(readOnly = true)
+    public Page<ArticleSummaryDTO> getPublishedArticlesByCategoryIds(Set<String> categoryIds, Pageable pageable) {
+        log.info("分页获取分类下的已发布文章, categoryIds={}, page={}", categoryIds, pageable);
+        try {
+            Specification<Article> spec = Specification
+                .where(ArticleSpecifications.hasStatus(ArticleStatus.PUBLISHED))
+                .and(ArticleSpecifications.hasAnyCategory(categoryIds));
+            return articleRepository.findSummaries(spec, pageable);
+        } catch (Exception e) {
+            log.error("分页获取分类文章失败", e);
+            throw new BusinessException("获取文章列表失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummaryDTO> getArticlesByCursor(ArticleStatus status, Set<String> categoryIds, String cursor, int size) {
+        log.info("游标分页获取文章, status={}, categoryIds={}, cursor={}, size={}", status, categoryIds, cursor, size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        try {
+            Specification<Article> spec = Specification
+                .where(ArticleSpecifications.hasStatus(status))
+                .and(ArticleSpecifications.hasAnyCategory(categoryIds))
+                .and(ArticleSpecifications.createdBefore(after));
+            // 多查一条用来判断是否还有下一页，不需要 count 查询
+            List<ArticleSummaryDTO> rows = articleRepository.findSummaries(spec, KEYSET_SORT, size + 1);
+            return CursorPage.of(rows, size, summary -> new KeysetCursor(summary.createTime(), summary.id()));
+        } catch (Exception e) {
+            log.error("游标分页获取文章失败", e);
+            throw new BusinessException("获取文章列表失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.ARTICLES, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<ArticleDetailDTO> getById(String id) {
         log.info("根据ID获取文章, id={}", id);
 
         if (id == null || id.isEmpty()) {
@@ -93,7 +178,8 @@ public class ArticleServiceImpl implements ArticleService {
         }
 
         try {
-            return articleRepository.findById(id);
+            // 缓存的是复制出的不可变快照，而不是会被后续请求修改的托管实体
+            return articleRepository.findById(id).map(ArticleDetailDTO::of);
         } catch (Exception e) {
             log.error("获取文章失败, id=" + id, e);
             throw new BusinessException("获取文章失败: " + e.getMessage());
@@ -101,7 +187,7 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    @CacheEvict(value = "articles", allEntries = true)
+    @Transactional
     public Article createArticle(CreateArticleDTO dto) {
         log.info("创建文章, 标题: {}", dto.title());
 
@@ -118,13 +204,17 @@ public class ArticleServiceImpl implements ArticleService {
 
         try {
             // 构建文章对象
+            LocalDateTime now = LocalDateTime.now();
             Article article = new Article()
                 .setTitle(dto.title())
                 .setContent(dto.content())
                 .setAuthor(dto.author())
-                .setCreateTime(LocalDateTime.now())
-                .setUpdateTime(LocalDateTime.now())
+                .setCreateTime(now)
+                .setUpdateTime(now)
                 .setStatus(dto.status() != null ? dto.status() : ArticleStatus.DRAFT);  // 默认草稿状态
+            if (article.getStatus() == ArticleStatus.PUBLISHED) {
+                article.setPublishTime(now);
+            }
 
             // 处理文章分类关联
             if (dto.categoryIds() != null && !dto.categoryIds().isEmpty()) {
@@ -134,6 +224,9 @@ public class ArticleServiceImpl implements ArticleService {
 
             // 保存文章
             Article savedArticle = articleRepository.save(article);
+            articleSearchIndex.index(savedArticle);
+            syncCategoryCounts(Set.of(), publishedCategoryIds(savedArticle));
+            evictCachesAfterCommit(null);
 
             log.info("文章创建成功, ID: {}", savedArticle.getId());
             return savedArticle;
@@ -144,7 +237,7 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    @CacheEvict(value = "articles", allEntries = true)
+    @Transactional
     public Article updateArticle(String id, CreateArticleDTO dto) {
         log.info("更新文章, ID: {}", id);
 
@@ -168,6 +261,8 @@ public class ArticleServiceImpl implements ArticleService {
                 throw new BusinessException("文章标题已被其他文章使用");
             }
 
+            Set<String> countedBefore = publishedCategoryIds(existingArticle);
+
             // 更新文章信息
             existingArticle.setTitle(dto.title())
                 .setContent(dto.content())
@@ -182,6 +277,9 @@ public class ArticleServiceImpl implements ArticleService {
 
             // 执行更新
             Article updatedArticle = articleRepository.save(existingArticle);
+            articleSearchIndex.index(updatedArticle);
+            syncCategoryCounts(countedBefore, publishedCategoryIds(updatedArticle));
+            evictCachesAfterCommit(id);
 
             log.info("文章更新成功, ID: {}", id);
             return updatedArticle;
@@ -194,7 +292,7 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    @CacheEvict(value = "articles", allEntries = true)
+    @Transactional
     public Article publishArticle(String id) {
         log.info("发布文章，ID：{}", id);
 
@@ -208,12 +306,20 @@ public class ArticleServiceImpl implements ArticleService {
             Article existingArticle = articleRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("文章不存在或已被删除"));
 
-            // 更新文章状态
+            Set<String> countedBefore = publishedCategoryIds(existingArticle);
+
+            // 更新文章状态，已发布的文章再次发布时保留原发布时间
+            LocalDateTime now = LocalDateTime.now();
+            if (existingArticle.getStatus() != ArticleStatus.PUBLISHED || existingArticle.getPublishTime() == null) {
+                existingArticle.setPublishTime(now);
+            }
             existingArticle.setStatus(ArticleStatus.PUBLISHED)
-                .setUpdateTime(LocalDateTime.now());
+                .setUpdateTime(now);
 
             // 更新
             Article updatedArticle = articleRepository.save(existingArticle);
+            syncCategoryCounts(countedBefore, publishedCategoryIds(updatedArticle));
+            evictCachesAfterCommit(id);
 
             log.info("发布文章成功，ID：{}", id);
             return updatedArticle;
@@ -226,7 +332,7 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    @CacheEvict(value = "articles", allEntries = true)
+    @Transactional
     public void deleteArticle(String id) {
         log.info("删除文章, ID: {}", id);
 
@@ -242,8 +348,14 @@ public class ArticleServiceImpl implements ArticleService {
                 throw new BusinessException("文章不存在或已被删除");
             }
 
+            Set<String> countedBefore = new HashSet<>(
+                articleRepository.findCategoryIdsByIdAndStatus(id, ArticleStatus.PUBLISHED));
+
             // 执行删除
             articleRepository.deleteById(id);
+            articleSearchIndex.remove(id);
+            syncCategoryCounts(countedBefore, Set.of());
+            evictCachesAfterCommit(id);
 
             log.info("文章删除成功, ID: {}", id);
         } catch (BusinessException e) {
@@ -255,7 +367,14 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     @Override
-    public List<Article> searchArticles(String keyword) {
+    public void increaseViewCount(String id) {
+        // 阅读数先记在内存中定时批量写回；详情缓存中的阅读数允许短暂滞后，这里不清除缓存
+        viewCountBuffer.increment(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> searchArticles(String keyword) {
         log.info("搜索文章，关键词：{}", keyword);
 
         if (keyword == null || keyword.trim().isEmpty()) {
@@ -263,66 +382,151 @@ public class ArticleServiceImpl implements ArticleService {
         }
 
         try {
-            List<Article> allArticles = getAllArticles();
-            String lowerCaseKeyword = keyword.toLowerCase().trim();
-
-            return allArticles.stream()
-                .filter(article ->
-                    (article.getTitle() != null && article.getTitle().toLowerCase().contains(lowerCaseKeyword)) ||
-                        (article.getContent() != null && article.getContent().toLowerCase().contains(lowerCaseKeyword))
-                ).collect(Collectors.toList());
+            // 通过倒排索引得到命中的文章ID，只加载命中的文章
+            List<String> ids = articleSearchIndex.search(keyword);
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return articleRepository.findSummaries(ArticleSpecifications.idIn(ids),
+                Sort.by(Sort.Direction.DESC, "createTime"), 0);
+        } catch (Exception e) {
+            log.error("搜索文章失败, 关键词: " + keyword, e);
+            throw new BusinessException("搜索文章失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> searchPublishedArticles(String keyword, Set<String> categoryIds) {
+        log.info("按条件检索已发布文章，关键词：{}，分类：{}", keyword, categoryIds);
+
+        try {
+            List<String> keywordHits = null;
+            if (keyword != null && !keyword.trim().isEmpty()) {
+                keywordHits = articleSearchIndex.search(keyword);
+                if (keywordHits.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+            Specification<Article> spec = Specification
+                .where(ArticleSpecifications.hasStatus(ArticleStatus.PUBLISHED))
+                .and(ArticleSpecifications.idIn(keywordHits))
+                .and(ArticleSpecifications.hasAnyCategory(categoryIds));
+            return articleRepository.findSummaries(spec, Sort.by(Sort.Direction.DESC, "createTime"), 0);
         } catch (Exception e) {
-            System.err.println("搜索文章失败, 关键词: " + keyword + ", 错误: " + e.getMessage());
+            log.error("检索文章失败, 关键词: " + keyword, e);
             throw new BusinessException("搜索文章失败: " + e.getMessage());
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countTotalArticles() {
         return articleRepository.count();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countPublishedArticles() {
         return articleRepository.countByStatus(ArticleStatus.PUBLISHED);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countDraftArticles() {
         return articleRepository.countByStatus(ArticleStatus.DRAFT);
     }
 
-    @Override
-    public List<Map<String, Object>> getArticleCategoryStats() {
-        log.info("获取文章分类统计数据");
-        List<Map<String, Object>> stats = new ArrayList<>();
-        
+    /**
+     * 文章计入分类文章数的分类ID；只有已发布的文章才计数
+     */
+    private Set<String> publishedCategoryIds(Article article) {
+        if (article.getStatus() != ArticleStatus.PUBLISHED || article.getCategories() == null) {
+            return Set.of();
+        }
+        return article.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+    }
+
+    /**
+     * 根据文章变更前后计入的分类，增减分类的文章数；与文章的修改处于同一事务
+     */
+    private void syncCategoryCounts(Set<String> before, Set<String> after) {
+        Set<String> removed = new HashSet<>(before);
+        removed.removeAll(after);
+        Set<String> added = new HashSet<>(after);
+        added.removeAll(before);
+        if (!removed.isEmpty()) {
+            categoryRepository.adjustArticleCount(removed, -1);
+        }
+        if (!added.isEmpty()) {
+            categoryRepository.adjustArticleCount(added, 1);
+        }
+    }
+
+    /**
+     * 文章变更后移除详情缓存并清空列表缓存；在事务中调用时等事务提交后再移除，
+     * 以免并发的读请求在提交前用旧数据重新填充缓存
+     * @param id 文章ID，为 null 时只清空列表缓存
+     */
+    private void evictCachesAfterCommit(String id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictCaches(id);
+                }
+            });
+        } else {
+            evictCaches(id);
+        }
+    }
+
+    private void evictCaches(String id) {
+        Cache articles = cacheManager.getCache(CacheConfig.ARTICLES);
+        if (articles != null && id != null) {
+            articles.evict(id);
+        }
+        Cache lists = cacheManager.getCache(CacheConfig.ARTICLE_LISTS);
+        if (lists != null) {
+            lists.clear();
+        }
+    }
+
+    /**
+     * 启动时为已发布的历史文章补充发布时间（取创建时间），完成后写入标记，只执行一次；
+     * 之后的文章在状态变为已发布时设置发布时间
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillMissingPublishTimes() {
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                if (systemMarkerRepository.existsById(PUBLISH_TIMES_FILLED)) {
+                    return null;
+                }
+                int filled = articleRepository.fillMissingPublishTimes(ArticleStatus.PUBLISHED);
+                systemMarkerRepository.save(SystemMarker.of(PUBLISH_TIMES_FILLED));
+                return filled;
+            });
+            if (rows != null && rows > 0) {
+                log.info("已为{}篇已发布文章补充发布时间", rows);
+            }
+        } catch (Exception e) {
+            log.warn("补充文章发布时间失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 启动时为历史文章补充摘要，新保存的文章由实体回调生成摘要
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillMissingExcerpts() {
         try {
-            // 获取所有分类
-            List<Category> categories = categoryRepository.findAll();
-            // 获取所有文章
-            List<Article> articles = articleRepository.findAll();
-            
-            // 统计每个分类下的文章数量
-            for (Category category : categories) {
-                long count = articles.stream()
-                    .filter(article -> article.getCategories() != null)
-                    .filter(article -> article.getCategories().stream()
-                        .anyMatch(cat -> cat.getId().equals(category.getId())))
-                    .count();
-                
-                Map<String, Object> categoryStat = new HashMap<>();
-                categoryStat.put("category", category.getName());
-                categoryStat.put("count", count);
-                stats.add(categoryStat);
+            int rows = articleRepository.fillMissingExcerpts();
+            if (rows > 0) {
+                log.info("已为{}篇文章补充摘要", rows);
             }
-            
-            log.info("获取文章分类统计数据成功，共{}个分类", stats.size());
         } catch (Exception e) {
-            log.error("获取文章分类统计数据失败", e);
-            throw new BusinessException("获取文章分类统计数据失败: " + e.getMessage());
+            log.warn("补充文章摘要失败：{}", e.getMessage());
         }
-        
-        return stats;
     }
 }
@@ -2,19 +2,18 @@ package org.Zewang.myBlog.service.category.impl;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.Zewang.myBlog.common.exception.BusinessException;
 import org.Zewang.myBlog.dto.CreateCategoryDTO;
-import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.model.Category;
 import org.Zewang.myBlog.model.enums.ArticleStatus;
-import org.Zewang.myBlog.repository.ArticleRepository;
 import org.Zewang.myBlog.repository.CategoryRepository;
 import org.Zewang.myBlog.service.category.CategoryService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,25 +28,15 @@ import org.slf4j.LoggerFactory;
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
-    private final ArticleRepository articleRepository;
     private static final Logger log = LoggerFactory.getLogger(CategoryServiceImpl.class);
 
     @Override
+    @Transactional(readOnly = true)
     public List<Category> getAllCategories() {
         log.info("获取所有分类");
         try {
-            List<Category> categories = categoryRepository.findAll();
-
-            // 统计每个分类的文章数量
-            Map<String, Long> categoryArticleCounts = getCategoryArticleCounts();
-
-            // 设置文章数量
-            for (Category category : categories) {
-                Long count = categoryArticleCounts.getOrDefault(category.getId(), 0L);
-                category.setArticleCount(count.intValue());
-            }
-
-            return categories;
+            // articleCount 随文章的创建、更新、发布、删除同步维护，这里只需查询分类表
+            return categoryRepository.findAll();
         } catch (Exception e) {
             log.error("获取所有分类失败", e);
             throw new BusinessException("获取所有分类失败" + e.getMessage());
@@ -55,44 +44,20 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     /**
-     * 获取每个分类的文章数量统计
+     * 启动时按关联表重新统计各分类的已发布文章数，修正历史数据或异常中断造成的计数偏差
      */
-    private Map<String, Long> getCategoryArticleCounts() {
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalculateArticleCounts() {
         try {
-            List<Article> allArticles = articleRepository.findAll();
-
-            // 统计每个分类的文章数量（只统计已发布的文章）
-            return allArticles.stream()
-                .filter(article -> {
-                    if (article.getStatus() == null) return false;
-
-                    // 处理数字类型的状态
-                    if (article.getStatus() instanceof ArticleStatus) {
-                        return article.getStatus() == ArticleStatus.PUBLISHED;
-                    }
-
-                    // 处理字符串类型的状态
-                    if (article.getStatus().getDescription() instanceof String) {
-                        return "PUBLISHED".equalsIgnoreCase((String) article.getStatus().getDescription());
-                    }
-
-                    // 处理数字类型的状态
-//                    if (article.getStatus().getCode() instanceof Number) {
-//                        return ((Number) article.getStatus().getCode()).intValue() == 1;
-//                    }
-
-                    return false;
-                })
-                .flatMap(article -> article.getCategories() != null ?
-                    article.getCategories().stream() : java.util.stream.Stream.empty())
-                .collect(Collectors.groupingBy(Category::getId, Collectors.counting()));
-    } catch (Exception e) {
-            log.error("统计分类文章数量失败", e);
-            return java.util.Collections.emptyMap();
+            int rows = categoryRepository.recalculateArticleCounts(ArticleStatus.PUBLISHED);
+            log.info("分类文章数统计完成，分类数：{}", rows);
+        } catch (Exception e) {
+            log.warn("分类文章数统计失败：{}", e.getMessage());
+        }
     }
-}
 
 @Override
+@Transactional(readOnly = true)
 public Category getCategoryById(String id) {
     log.info("获取分类 id={}", id);
 
@@ -1,6 +1,10 @@
 package org.Zewang.myBlog.service.comment;
 
 import java.util.List;
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.dto.BulkCommentStatusDTO;
+import org.Zewang.myBlog.dto.BulkCommentStatusResultDTO;
+import org.Zewang.myBlog.dto.CommentNodeDTO;
 import org.Zewang.myBlog.dto.CreateCommentDTO;
 import org.Zewang.myBlog.model.Comment;
 
@@ -16,12 +20,34 @@ public interface CommentService {
     Comment createComment(CreateCommentDTO dto, String userId, String username);
     
     /**
-     * 根据文章ID查询评论列表
+     * 根据文章ID查询评论树
      * @param articleId 文章ID
-     * @return 评论列表
+     * @param maxDepth 最大回复深度，为空时使用默认值，超过配置上限时按上限处理
+     * @param maxReplies 每条评论最多返回的直接回复数，为空时使用默认值，超过配置上限时按上限处理
+     * @return 顶级评论列表（按时间倒序），回复嵌套在 replies 中（按时间正序）
      */
-    List<Comment> getCommentsByArticleId(String articleId);
+    List<CommentNodeDTO> getCommentsByArticleId(String articleId, Integer maxDepth, Integer maxReplies);
     
+    /**
+     * 游标分页查询文章的顶级评论，每条只附带最早的若干条回复
+     * @param articleId 文章ID
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页大小
+     * @param previewReplies 每条评论附带的回复数，为空时使用默认值
+     * @return 顶级评论分页，按时间倒序
+     */
+    CursorPage<CommentNodeDTO> getCommentThreads(String articleId, String cursor, int size, Integer previewReplies);
+
+    /**
+     * 游标分页查询评论的直接回复
+     * @param articleId 文章ID
+     * @param parentId 父评论ID
+     * @param cursor 上一页或评论树返回的游标，为空表示从第一条回复开始
+     * @param size 每页大小
+     * @return 回复分页，按时间正序；回复本身只带回复数，不再展开
+     */
+    CursorPage<CommentNodeDTO> getReplies(String articleId, String parentId, String cursor, int size);
+
     /**
      * 删除评论
      * @param id 评论ID
@@ -63,10 +89,15 @@ public interface CommentService {
     List<Comment> getRecentComments(int limit);
     
     /**
-     * 获取所有评论列表
-     * @return 所有评论列表
+     * 游标分页查询评论审核列表，按创建时间倒序
+     * @param status 评论状态，为空表示全部
+     * @param articleId 文章ID，为空表示全部
+     * @param userId 用户ID，为空表示全部
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页数量
+     * @return 评论分页结果
      */
-    List<Comment> getAllComments();
+    CursorPage<Comment> getModerationComments(Integer status, String articleId, String userId, String cursor, int size);
     
     /**
      * 根据ID获取评论
@@ -82,4 +113,12 @@ public interface CommentService {
      * @return 更新后的评论对象
      */
     Comment updateCommentStatus(String id, Integer status);
-}
\ No newline at end of file
+
+    /**
+     * 批量修改评论状态：按评论ID列表或筛选条件在一个事务内修改，
+     * 并对受影响的文章各重新统计一次评论数
+     * @param dto 新状态及评论ID列表或筛选条件
+     * @return 修改的评论数和受影响的文章数
+     */
+    BulkCommentStatusResultDTO updateCommentStatusInBulk(BulkCommentStatusDTO dto);
+}
@@ -5,20 +5,46 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.Zewang.myBlog.common.exception.BusinessException;
+import org.Zewang.myBlog.common.exception.ValidationException;
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.common.pagination.KeysetCursor;
+import org.Zewang.myBlog.config.CacheConfig;
+import org.Zewang.myBlog.dto.BulkCommentStatusDTO;
+import org.Zewang.myBlog.dto.BulkCommentStatusResultDTO;
+import org.Zewang.myBlog.dto.CommentNodeDTO;
 import org.Zewang.myBlog.dto.CreateCommentDTO;
-import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.model.Comment;
+import org.Zewang.myBlog.model.SystemMarker;
+import org.Zewang.myBlog.repository.CommentBulkRepository;
 import org.Zewang.myBlog.repository.CommentRepository;
 import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.repository.CommentSpecifications;
+import org.Zewang.myBlog.repository.SystemMarkerRepository;
 import org.Zewang.myBlog.service.comment.CommentService;
+import org.Zewang.myBlog.service.comment.thread.CommentThreadBuilder;
+import org.Zewang.myBlog.service.comment.thread.CommentThreadCache;
+import org.Zewang.myBlog.service.write.WritePipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author "Zewang"
@@ -30,29 +56,66 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
     private static final Logger logger = LoggerFactory.getLogger(CommentServiceImpl.class);
+
+    /**
+     * 审核列表游标分页的排序，需与 {@link CommentSpecifications#createdBefore} 的比较条件一致
+     */
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createTime", "id");
+
+    // 历史评论的用户名已替换为用户ID的标记，存在时启动不再扫描评论表
+    static final String USER_IDS_MIGRATED = "comment-user-ids-migrated";
     
     private final CommentRepository commentRepository;
+    private final CommentBulkRepository commentBulkRepository;
     private final ArticleRepository articleRepository;
+    private final CacheManager cacheManager;
+    private final CommentThreadCache commentThreadCache;
+    private final WritePipeline writePipeline;
+    private final SystemMarkerRepository systemMarkerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 评论树的默认和最大深度、单层回复数，防止热门讨论一次返回过多数据
+    @Value("${blog.comment.thread.default-depth:8}")
+    private int threadDefaultDepth;
+
+    @Value("${blog.comment.thread.max-depth:32}")
+    private int threadMaxDepth;
+
+    @Value("${blog.comment.thread.default-replies:50}")
+    private int threadDefaultReplies;
+
+    @Value("${blog.comment.thread.max-replies:200}")
+    private int threadMaxReplies;
+
+    // 分页评论列表中每条顶级评论附带的回复数
+    @Value("${blog.comment.thread.preview-replies:3}")
+    private int threadPreviewReplies;
+
+    // 开启后新评论为待审核状态，审核通过后才展示并计入文章评论数
+    @Value("${blog.comment.moderation.enabled:false}")
+    private boolean moderationEnabled;
     
     @Override
-    @Transactional
     public Comment createComment(CreateCommentDTO dto, String userId, String username) {
         logger.info("创建评论，文章ID：{}, 用户ID：{}", dto.getArticleId(), userId);
-        
-        // 检查文章是否存在
-        if (!articleRepository.existsById(dto.getArticleId())) {
-            throw new BusinessException("文章不存在");
+        // 由写入管道与其他评论、点赞合并到同一个事务提交
+        return writePipeline.execute(() -> insertComment(dto, userId, username));
+    }
+
+    private Comment insertComment(CreateCommentDTO dto, String userId, String username) {
+        // 如果是回复评论，检查父评论是否存在且属于同一篇文章
+        if (dto.getParentId() != null
+            && !commentRepository.existsByIdAndArticleId(dto.getParentId(), dto.getArticleId())) {
+            throw new BusinessException("父评论不存在或不属于该文章");
         }
         
-        // 如果是回复评论，检查父评论是否存在
-        if (dto.getParentId() != null) {
-            Comment parentComment = commentRepository.findById(dto.getParentId())
-                .orElseThrow(() -> new BusinessException("父评论不存在"));
-            
-            // 检查父评论是否属于同一篇文章
-            if (!parentComment.getArticleId().equals(dto.getArticleId())) {
-                throw new BusinessException("父评论不属于该文章");
-            }
+        // 正常评论原子地增加文章评论数，同时用受影响行数判断文章是否存在；待审核的评论不计数
+        int status = moderationEnabled ? Comment.STATUS_PENDING : Comment.STATUS_NORMAL;
+        boolean articleExists = status == Comment.STATUS_NORMAL
+            ? articleRepository.addCommentCount(dto.getArticleId(), 1) > 0
+            : articleRepository.existsById(dto.getArticleId());
+        if (!articleExists) {
+            throw new BusinessException("文章不存在");
         }
         
         // 创建评论
@@ -62,132 +125,306 @@ public class CommentServiceImpl implements CommentService {
         comment.setUsername(username);
         comment.setContent(dto.getContent());
         comment.setParentId(dto.getParentId());
-        comment.setStatus(0); // 0表示正常状态
+        comment.setStatus(status);
         comment.setLikes(0);
         comment.setCreateTime(LocalDateTime.now());
         comment.setUpdateTime(LocalDateTime.now());
         
         Comment savedComment = commentRepository.save(comment);
-        
-        // 更新文章评论数
-        Article article = articleRepository.findById(dto.getArticleId()).orElse(null);
-        if (article != null) {
-            article.setCommentCount(article.getCommentCount() + 1);
-            articleRepository.save(article);
+        // 待审核的评论不出现在评论树中，也不改变评论数，审核通过时再失效缓存
+        if (status == Comment.STATUS_NORMAL) {
+            commentThreadCache.invalidate(dto.getArticleId());
+            evictArticleCache(dto.getArticleId());
         }
-        
         return savedComment;
     }
     
     @Override
-    public List<Comment> getCommentsByArticleId(String articleId) {
+    @Transactional(readOnly = true)
+    public List<CommentNodeDTO> getCommentsByArticleId(String articleId, Integer maxDepth, Integer maxReplies) {
         logger.info("查询文章评论，文章ID：{}", articleId);
-        // 先获取所有正常状态的评论
-        List<Comment> allComments = commentRepository.findByArticleIdAndStatusOrderByCreateTimeDesc(articleId, 0);
-
-        // 将评论转换为嵌套结构
-        Map<String, Comment> commentMap = new HashMap<>();
-        List<Comment> rootComments = new ArrayList<>();
-
-        // 先将所有评论放到Map中，并初始化replies列表
-        for (Comment comment : allComments) {
-            comment.setReplies(new ArrayList<>());
-            commentMap.put(comment.getId(), comment);
-        }
-
-        // 构建嵌套结构：将回复添加到父评论的replies中，顶级评论添加到rootComments中
-        for (Comment comment : allComments) {
-            if (comment.getParentId() != null) {
-                // 是回复评论，找到父评论并添加
-                Comment parentComment = commentMap.get(comment.getParentId());
-                if (parentComment != null) {
-                    parentComment.getReplies().add(comment);
-                }
-            } else {
-                // 是顶级评论，直接添加到根列表
-                rootComments.add(comment);
-            }
+        int depth = maxDepth != null ? Math.min(Math.max(maxDepth, 0), threadMaxDepth) : threadDefaultDepth;
+        int replies = maxReplies != null ? Math.min(Math.max(maxReplies, 0), threadMaxReplies) : threadDefaultReplies;
+        // 已删除的评论也需要参与构建，以便为仍有回复的评论保留占位节点
+        return commentThreadCache.get(articleId, "tree:" + depth + ":" + replies, () ->
+            CommentThreadBuilder.build(commentRepository.findByArticleIdOrderByCreateTimeAscIdAsc(articleId), depth, replies));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentNodeDTO> getCommentThreads(String articleId, String cursor, int size, Integer previewReplies) {
+        logger.info("分页查询文章评论，文章ID：{}，cursor：{}，size：{}", articleId, cursor, size);
+        int replies = previewReplies != null
+            ? Math.min(Math.max(previewReplies, 0), threadMaxReplies)
+            : threadPreviewReplies;
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        if (before == null) {
+            // 文章页打开时都会请求第一页，缓存起来；后续页访问较少，直接查询
+            return commentThreadCache.get(articleId, "threads:" + size + ":" + replies, () ->
+                loadCommentThreads(articleId, null, size, replies));
         }
+        return loadCommentThreads(articleId, before, size, replies);
+    }
+
+    private CursorPage<CommentNodeDTO> loadCommentThreads(String articleId, KeysetCursor before, int size, int replies) {
+        // 多查一条用来判断是否还有下一页
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Comment> rows = before == null
+            ? commentRepository.findThreadRoots(articleId, limit)
+            : commentRepository.findThreadRootsBefore(articleId, before.time(), before.id(), limit);
+        CursorPage<Comment> page = CursorPage.of(rows, size, c -> new KeysetCursor(c.getCreateTime(), c.getId()));
+        if (page.items().isEmpty()) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+
+        List<String> rootIds = page.items().stream().map(Comment::getId).toList();
+        List<Comment> firstReplies = replies > 0
+            ? commentRepository.findFirstRepliesByParentIds(articleId, rootIds, replies)
+            : List.of();
 
-        return rootComments;
+        // 顶级评论和预览回复的回复数一次统计
+        List<String> countIds = new ArrayList<>(rootIds.size() + firstReplies.size());
+        countIds.addAll(rootIds);
+        firstReplies.forEach(reply -> countIds.add(reply.getId()));
+        Map<String, Integer> replyCounts = countReplies(articleId, countIds);
+
+        Map<String, List<CommentNodeDTO>> repliesByParent = new HashMap<>();
+        for (Comment reply : firstReplies) {
+            repliesByParent.computeIfAbsent(reply.getParentId(), k -> new ArrayList<>(replies))
+                .add(toNode(reply, replyCounts));
+        }
+        return page.map(root -> CommentNodeDTO.of(root, isDeleted(root), replyCounts.getOrDefault(root.getId(), 0),
+            List.copyOf(repliesByParent.getOrDefault(root.getId(), List.of()))));
     }
-    
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentNodeDTO> getReplies(String articleId, String parentId, String cursor, int size) {
+        logger.info("分页查询评论回复，文章ID：{}，父评论ID：{}，cursor：{}，size：{}", articleId, parentId, cursor, size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Comment> rows = after == null
+            ? commentRepository.findReplies(articleId, parentId, limit)
+            : commentRepository.findRepliesAfter(articleId, parentId, after.time(), after.id(), limit);
+        CursorPage<Comment> page = CursorPage.of(rows, size, c -> new KeysetCursor(c.getCreateTime(), c.getId()));
+        if (page.items().isEmpty()) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+        Map<String, Integer> replyCounts = countReplies(articleId,
+            page.items().stream().map(Comment::getId).toList());
+        return page.map(reply -> toNode(reply, replyCounts));
+    }
+
     @Override
     @Transactional
     public void deleteComment(String id, String userId) {
         logger.info("删除评论，评论ID：{}, 用户ID：{}", id, userId);
         
-        Comment comment = commentRepository.findById(id)
+        String articleId = commentRepository.findArticleIdById(id)
             .orElseThrow(() -> new BusinessException("评论不存在"));
         
         // 检查权限：Controller层已限制只有管理员可以调用此方法，
         // 所以这里不需要再检查评论作者，但可以保留基本的安全验证
         // 确保只有管理员操作
         
-        // 软删除：更新状态为已删除
-        comment.setStatus(1);
-        comment.setUpdateTime(LocalDateTime.now());
-        commentRepository.save(comment);
-        
-        // 更新文章评论数
-        Article article = articleRepository.findById(comment.getArticleId()).orElse(null);
-        if (article != null && article.getCommentCount() > 0) {
-            article.setCommentCount(article.getCommentCount() - 1);
-            articleRepository.save(article);
+        // 软删除：更新状态为已删除；只有正常状态的评论计入评论数，已删除或待审核的评论不扣减
+        LocalDateTime now = LocalDateTime.now();
+        if (commentRepository.updateStatusFrom(id, Comment.STATUS_NORMAL, Comment.STATUS_DELETED, now) > 0) {
+            articleRepository.addCommentCount(articleId, -1);
+            commentThreadCache.invalidate(articleId);
+            evictArticleCache(articleId);
+        } else if (commentRepository.updateStatus(id, Comment.STATUS_DELETED, now) > 0) {
+            commentThreadCache.invalidate(articleId);
         }
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Comment> getCommentsByUserId(String userId) {
         logger.info("查询用户评论，用户ID：{}", userId);
         return commentRepository.findByUserIdOrderByCreateTimeDesc(userId);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public long countCommentsByArticleId(String articleId) {
         logger.info("统计文章评论数，文章ID：{}", articleId);
-        return commentRepository.countByArticleIdAndStatus(articleId, 0);
+        return commentRepository.countByArticleIdAndStatus(articleId, Comment.STATUS_NORMAL);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countTotalComments() {
         logger.info("统计总评论数");
         return commentRepository.count();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countPendingComments() {
         logger.info("统计待审核评论数");
-        return commentRepository.count();
+        return commentRepository.countByStatus(Comment.STATUS_PENDING);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Comment> getRecentComments(int limit) {
         logger.info("获取最近的评论，限制数量：{}", limit);
-        return commentRepository.findTop10ByOrderByCreateTimeDesc();
+        if (limit <= 0) {
+            return List.of();
+        }
+        return commentRepository.findAllByOrderByCreateTimeDescIdDesc(PageRequest.of(0, limit));
     }
     
     @Override
-    public List<Comment> getAllComments() {
-        logger.info("获取所有评论");
-        return commentRepository.findAllByOrderByCreateTimeDesc();
+    @Transactional(readOnly = true)
+    public CursorPage<Comment> getModerationComments(Integer status, String articleId, String userId,
+                                                     String cursor, int size) {
+        logger.info("分页查询审核评论，status：{}，articleId：{}，userId：{}，cursor：{}，size：{}",
+            status, articleId, userId, cursor, size);
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        Specification<Comment> spec = Specification
+            .where(CommentSpecifications.hasStatus(status))
+            .and(CommentSpecifications.hasArticle(articleId))
+            .and(CommentSpecifications.hasUser(userId))
+            .and(CommentSpecifications.createdBefore(before));
+        // 多查一条用来判断是否还有下一页，不需要 count 查询
+        List<Comment> rows = commentRepository.findBy(spec, query -> query.sortBy(KEYSET_SORT).limit(size + 1).all());
+        return CursorPage.of(rows, size, c -> new KeysetCursor(c.getCreateTime(), c.getId()));
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Comment getCommentById(String id) {
         logger.info("根据ID获取评论，ID：{}", id);
         return commentRepository.findById(id).orElse(null);
     }
     
     @Override
+    @Transactional
     public Comment updateCommentStatus(String id, Integer status) {
         logger.info("更新评论状态，ID：{}，状态：{}", id, status);
         Comment comment = commentRepository.findById(id).orElse(null);
-        if (comment != null) {
+        if (comment == null) {
+            return null;
+        }
+        Integer previous = comment.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        // updateStatus 执行后会清空持久化上下文，comment 成为游离对象，下面的修改只用于返回结果
+        if (commentRepository.updateStatus(id, status, now) > 0) {
+            // 评论数只统计正常状态的评论
+            int delta = (status == Comment.STATUS_NORMAL ? 1 : 0)
+                - (previous != null && previous == Comment.STATUS_NORMAL ? 1 : 0);
+            if (delta != 0) {
+                articleRepository.addCommentCount(comment.getArticleId(), delta);
+                evictArticleCache(comment.getArticleId());
+            }
+            commentThreadCache.invalidate(comment.getArticleId());
             comment.setStatus(status);
-            comment.setUpdateTime(LocalDateTime.now());
-            return commentRepository.save(comment);
+            comment.setUpdateTime(now);
+        }
+        return comment;
+    }
+
+    @Override
+    @Transactional
+    public BulkCommentStatusResultDTO updateCommentStatusInBulk(BulkCommentStatusDTO dto) {
+        boolean byIds = dto.getIds() != null && !dto.getIds().isEmpty();
+        CommentBulkRepository.Filter filter = new CommentBulkRepository.Filter(
+            dto.getFilterStatus(), dto.getArticleId(), dto.getUserId());
+        if (byIds == !filter.isEmpty()) {
+            throw new ValidationException("评论ID列表和筛选条件必须且只能指定一个");
+        }
+        int status = dto.getStatus();
+        logger.info("批量更新评论状态，状态：{}，评论数：{}，筛选条件：{}",
+            status, byIds ? dto.getIds().size() : null, byIds ? null : filter);
+
+        // 先找出状态会变化的评论所属文章，修改后只对这些文章重算评论数
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> articleIds;
+        int updated;
+        if (byIds) {
+            List<String> ids = dto.getIds().stream().distinct().toList();
+            articleIds = commentBulkRepository.findArticleIdsByIds(ids, status);
+            updated = articleIds.isEmpty() ? 0 : commentBulkRepository.updateStatusByIds(ids, status, now);
+        } else {
+            articleIds = commentBulkRepository.findArticleIdsByFilter(filter, status);
+            updated = articleIds.isEmpty() ? 0 : commentBulkRepository.updateStatusByFilter(filter, status, now);
+        }
+        if (updated > 0) {
+            commentBulkRepository.recountComments(articleIds);
+            for (String articleId : articleIds) {
+                commentThreadCache.invalidate(articleId);
+                evictArticleCache(articleId);
+            }
+        }
+        logger.info("批量更新评论状态完成，修改评论数：{}，涉及文章数：{}", updated, articleIds.size());
+        return new BulkCommentStatusResultDTO(updated, updated > 0 ? articleIds.size() : 0);
+    }
+
+    /**
+     * 启动时把历史评论中以用户名记录的 userId 换成用户ID，完成后写入标记，只执行一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyUserIds() {
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                if (systemMarkerRepository.existsById(USER_IDS_MIGRATED)) {
+                    return null;
+                }
+                int replaced = commentRepository.replaceUsernameUserIds();
+                systemMarkerRepository.save(SystemMarker.of(USER_IDS_MIGRATED));
+                return replaced;
+            });
+            if (rows != null && rows > 0) {
+                logger.info("已将{}条评论的用户名替换为用户ID", rows);
+            }
+        } catch (Exception e) {
+            logger.warn("迁移评论的用户ID失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 统计评论的可见直接回复数，没有回复的评论不在结果中
+     */
+    private Map<String, Integer> countReplies(String articleId, List<String> parentIds) {
+        List<Object[]> rows = commentRepository.countRepliesByParentIds(articleId, parentIds);
+        Map<String, Integer> counts = HashMap.newHashMap(rows.size());
+        for (Object[] row : rows) {
+            counts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+
+    /**
+     * 转换为不展开回复的节点
+     */
+    private CommentNodeDTO toNode(Comment comment, Map<String, Integer> replyCounts) {
+        return CommentNodeDTO.of(comment, isDeleted(comment), replyCounts.getOrDefault(comment.getId(), 0), List.of());
+    }
+
+    private boolean isDeleted(Comment comment) {
+        return comment.getStatus() != null && comment.getStatus() == Comment.STATUS_DELETED;
+    }
+
+    /**
+     * 评论数变化后移除对应文章的详情缓存；在事务中调用时等事务提交后再移除，
+     * 以免并发的读请求在提交前用旧的评论数重新填充缓存
+     */
+    private void evictArticleCache(String articleId) {
+        Cache cache = cacheManager.getCache(CacheConfig.ARTICLES);
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(articleId);
+                }
+            });
+        } else {
+            cache.evict(articleId);
         }
-        return null;
     }
-}
\ No newline at end of file
+}
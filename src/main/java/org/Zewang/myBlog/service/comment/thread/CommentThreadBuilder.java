@@ -0,0 +1,173 @@
+package org.Zewang.myBlog.service.comment.thread;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.Zewang.myBlog.dto.CommentNodeDTO;
+import org.Zewang.myBlog.model.Comment;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 评论树构建器，把一篇文章的扁平评论列表转换为只读的评论树
+ *               不修改评论实体；父子关系、层级、可见性都保存在按下标访问的 int/boolean 数组中，
+ *               只为最终返回的节点创建对象。已删除但仍有可见回复的评论以占位节点保留，
+ *               待审核的评论及其回复不返回，超出深度或单层数量上限的回复不返回，只体现在父节点的 replyCount 中
+ * @email "Zewang0217@outlook.com"
+ */
+public final class CommentThreadBuilder {
+
+    private static final Comparator<Comment> BY_TIME = Comparator
+        .comparing(Comment::getCreateTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(Comment::getId);
+
+    private CommentThreadBuilder() {
+    }
+
+    /**
+     * 构建评论树
+     * @param comments 文章的全部评论（包括已删除的），最好已按创建时间正序排列，否则会先排序一次
+     * @param maxDepth 最大回复深度，顶级评论深度为0
+     * @param maxReplies 每条评论最多返回的直接回复数
+     * @return 顶级评论按创建时间倒序，各层回复按创建时间正序
+     */
+    public static List<CommentNodeDTO> build(List<Comment> comments, int maxDepth, int maxReplies) {
+        int n = comments.size();
+        if (n == 0) {
+            return List.of();
+        }
+        List<Comment> sorted = isSortedByTime(comments) ? comments : sortByTime(comments);
+
+        Map<String, Integer> positions = HashMap.newHashMap(n);
+        for (int i = 0; i < n; i++) {
+            positions.put(sorted.get(i).getId(), i);
+        }
+
+        // 子节点以数组链表保存，按输入顺序追加，同层天然按时间正序
+        int[] parent = new int[n];
+        int[] firstChild = new int[n];
+        int[] lastChild = new int[n];
+        int[] nextSibling = new int[n];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+
+        // order 前 roots 个为顶级评论，之后按层序追加回复，保证父节点总在子节点之前
+        int[] order = new int[n];
+        int roots = 0;
+        for (int i = 0; i < n; i++) {
+            String parentId = sorted.get(i).getParentId();
+            Integer p = parentId != null ? positions.get(parentId) : null;
+            if (p == null || p == i) {
+                // 父评论不存在的回复按顶级评论处理，避免丢失
+                parent[i] = -1;
+                order[roots++] = i;
+            } else {
+                parent[i] = p;
+                if (firstChild[p] < 0) {
+                    firstChild[p] = i;
+                } else {
+                    nextSibling[lastChild[p]] = i;
+                }
+                lastChild[p] = i;
+            }
+        }
+
+        int[] depth = new int[n];
+        int size = roots;
+        for (int head = 0; head < size; head++) {
+            int node = order[head];
+            for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+                depth[c] = depth[node] + 1;
+                order[size++] = c;
+            }
+        }
+
+        // 自底向上：评论本身正常，或已删除但有可见的回复时才保留，并统计可见的直接回复数
+        boolean[] visible = new boolean[n];
+        int[] replyCount = new int[n];
+        for (int k = size - 1; k >= 0; k--) {
+            int node = order[k];
+            Comment comment = sorted.get(node);
+            visible[node] = isNormal(comment) || (isDeleted(comment) && replyCount[node] > 0);
+            if (visible[node] && parent[node] >= 0) {
+                replyCount[parent[node]]++;
+            }
+        }
+
+        // 自顶向下：在深度和数量上限内选出需要返回的节点
+        boolean[] included = new boolean[n];
+        int[] includedReplies = new int[n];
+        for (int k = 0; k < size; k++) {
+            int node = order[k];
+            if (!visible[node]) {
+                continue;
+            }
+            int p = parent[node];
+            if (p < 0) {
+                included[node] = true;
+            } else if (included[p] && depth[node] <= maxDepth && includedReplies[p] < maxReplies) {
+                included[node] = true;
+                includedReplies[p]++;
+            }
+        }
+
+        // 自底向上创建节点，子节点总是先于父节点完成
+        CommentNodeDTO[] nodes = new CommentNodeDTO[n];
+        for (int k = size - 1; k >= 0; k--) {
+            int node = order[k];
+            if (!included[node]) {
+                continue;
+            }
+            List<CommentNodeDTO> replies = List.of();
+            if (includedReplies[node] > 0) {
+                CommentNodeDTO[] children = new CommentNodeDTO[includedReplies[node]];
+                int j = 0;
+                for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+                    if (included[c]) {
+                        children[j++] = nodes[c];
+                        nodes[c] = null;
+                    }
+                }
+                replies = Collections.unmodifiableList(Arrays.asList(children));
+            }
+            Comment comment = sorted.get(node);
+            nodes[node] = CommentNodeDTO.of(comment, isDeleted(comment), replyCount[node], replies);
+        }
+
+        List<CommentNodeDTO> result = new ArrayList<>(roots);
+        for (int k = roots - 1; k >= 0; k--) {
+            CommentNodeDTO root = nodes[order[k]];
+            if (root != null) {
+                result.add(root);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static boolean isNormal(Comment comment) {
+        return comment.getStatus() != null && comment.getStatus() == Comment.STATUS_NORMAL;
+    }
+
+    private static boolean isDeleted(Comment comment) {
+        return comment.getStatus() != null && comment.getStatus() == Comment.STATUS_DELETED;
+    }
+
+    private static boolean isSortedByTime(List<Comment> comments) {
+        for (int i = 1; i < comments.size(); i++) {
+            if (BY_TIME.compare(comments.get(i - 1), comments.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Comment> sortByTime(List<Comment> comments) {
+        List<Comment> sorted = new ArrayList<>(comments);
+        sorted.sort(BY_TIME);
+        return sorted;
+    }
+}
@@ -0,0 +1,130 @@
+package org.Zewang.myBlog.service.comment.thread;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.Zewang.myBlog.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 文章评论树缓存
+ *               缓存 key 由文章ID、文章当前版本号和视图（完整评论树或第一页评论及参数）组成；
+ *               评论变化时只需递增文章的版本号，旧版本的所有视图随即失效，由缓存容量和过期时间自然淘汰。
+ *               版本号取自全局递增序列，版本记录被淘汰后重新分配的版本也不会与旧条目重复
+ * @email "Zewang0217@outlook.com"
+ */
+@Component
+public class CommentThreadCache {
+
+    // 版本记录只有一个 long，上限远大于评论树缓存即可
+    private static final int MAX_VERSIONS = 10_000;
+
+    private final CacheManager cacheManager;
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> versions = Caffeine.newBuilder()
+        .maximumSize(MAX_VERSIONS)
+        .build();
+
+    // 正在构建的视图，同一 key 的并发请求等待第一个请求的结果
+    private final ConcurrentHashMap<ThreadKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private record ThreadKey(String articleId, long version, String view) {
+    }
+
+    public CommentThreadCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 读取评论树视图，未命中时调用 loader 构建；同一 key 的并发请求只会构建一次
+     * 不使用 Cache#get(key, loader)：Caffeine 在哈希桶的 synchronized 锁内执行 loader，
+     * 构建时查询数据库会让虚拟线程固定住载体线程；这里改为第一个请求构建，其余请求等待它的结果
+     * @param articleId 文章ID
+     * @param view 视图标识，需包含影响结果的全部参数
+     * @param loader 构建函数，返回值必须是不可变对象
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String articleId, String view, Callable<T> loader) {
+        Cache cache = cacheManager.getCache(CacheConfig.COMMENT_THREADS);
+        if (cache == null) {
+            return load(articleId, loader);
+        }
+        ThreadKey key = new ThreadKey(articleId, versionOf(articleId), view);
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, loading);
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new Cache.ValueRetrievalException(key, loader, e.getCause());
+            }
+        }
+        try {
+            T value = load(key, loader);
+            cache.put(key, value);
+            loading.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    /**
+     * 使文章的评论树缓存失效；在事务中调用时，等事务提交后再失效，
+     * 避免提交前有请求按新版本号缓存了旧数据
+     * @param articleId 文章ID
+     */
+    public void invalidate(String articleId) {
+        if (articleId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(articleId);
+                }
+            });
+        } else {
+            bump(articleId);
+        }
+    }
+
+    private static <T> T load(Object key, Callable<T> loader) {
+        try {
+            return loader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new Cache.ValueRetrievalException(key, loader, e);
+        }
+    }
+
+    private long versionOf(String articleId) {
+        return versions.get(articleId, k -> versionSequence.incrementAndGet());
+    }
+
+    private void bump(String articleId) {
+        versions.put(articleId, versionSequence.incrementAndGet());
+    }
+}
@@ -0,0 +1,204 @@
+package org.Zewang.myBlog.service.like.counter;
+
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.Zewang.myBlog.config.CacheConfig;
+import org.Zewang.myBlog.model.SystemMarker;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.repository.SystemMarkerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 文章点赞数的写缓冲
+ *               点赞和取消点赞只在内存中累加增量，由定时任务合并后批量写回，
+ *               每篇文章每个周期只执行一次 UPDATE ... SET like_count = like_count + ?；
+ *               进程异常退出会丢失尚未写回的增量，此后第一次启动时按点赞表重新统计点赞数
+ * @email "Zewang0217@outlook.com"
+ */
+@Component
+public class LikeCountBuffer {
+    private static final Logger log = LoggerFactory.getLogger(LikeCountBuffer.class);
+
+    // 正常停机且增量已全部写回时记录的标记
+    static final String FLUSHED_ON_SHUTDOWN = "like-counts-flushed-on-shutdown";
+
+    private final ArticleRepository articleRepository;
+    private final SystemMarkerRepository systemMarkerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    // 文章ID -> 尚未写回的增量；ConcurrentHashMap 按桶加锁，不同文章的点赞互不阻塞
+    private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+
+    // 保证同一时刻只有一次写回；写回期间会访问数据库，用 ReentrantLock 而不是 synchronized，
+    // 以免虚拟线程在等待数据库时固定住载体线程
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LikeCountBuffer(ArticleRepository articleRepository, SystemMarkerRepository systemMarkerRepository,
+                           TransactionTemplate transactionTemplate, CacheManager cacheManager) {
+        this.articleRepository = articleRepository;
+        this.systemMarkerRepository = systemMarkerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 累加点赞数增量；在事务中调用时，等点赞记录提交成功后才计入
+     * @param articleId 文章ID
+     * @param delta 增量，点赞为1，取消点赞为-1
+     */
+    public void add(String articleId, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    merge(articleId, delta);
+                }
+            });
+        } else {
+            merge(articleId, delta);
+        }
+    }
+
+    private void merge(String articleId, long delta) {
+        pending.merge(articleId, delta, Long::sum);
+    }
+
+    /**
+     * 将累积的增量写回数据库，所有文章在同一个事务中提交
+     * @return 写回的文章数
+     */
+    @Scheduled(fixedDelayString = "${blog.like.flush-interval-ms:1000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            return flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushPending() {
+        // remove 是原子操作，取出后新的点赞会累加到新的条目上，不会丢失
+        Map<String, Long> batch = new HashMap<>();
+        for (String articleId : pending.keySet()) {
+            Long delta = pending.remove(articleId);
+            if (delta != null && delta != 0) {
+                batch.put(articleId, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                batch.forEach(articleRepository::addLikeCount));
+        } catch (Exception e) {
+            // 写回失败时把增量放回缓冲区，下个周期重试
+            batch.forEach(this::merge);
+            log.warn("点赞数写回失败，{}篇文章的增量将在下次重试：{}", batch.size(), e.getMessage());
+            return 0;
+        }
+
+        Cache articles = cacheManager.getCache(CacheConfig.ARTICLES);
+        if (articles != null) {
+            batch.keySet().forEach(articles::evict);
+        }
+        log.debug("点赞数写回完成，文章数：{}", batch.size());
+        return batch.size();
+    }
+
+    /**
+     * 启动时按点赞表重新统计各文章的点赞数，修正进程异常退出时丢失增量造成的偏差；
+     * 上次正常停机且增量已全部写回时跳过统计
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalculate() {
+        flushLock.lock();
+        try {
+            flushPending();
+            Map<String, Long> captured = new HashMap<>();
+            Integer rows;
+            try {
+                rows = transactionTemplate.execute(status -> recount(captured));
+            } catch (DataAccessException | TransactionException e) {
+                captured.forEach(this::merge);
+                throw e;
+            }
+            if (rows == null) {
+                log.info("上次停机时点赞数已全部写回，跳过重新统计");
+                return;
+            }
+            Cache articles = cacheManager.getCache(CacheConfig.ARTICLES);
+            if (articles != null) {
+                articles.clear();
+            }
+            log.info("文章点赞数统计完成，文章数：{}", rows);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("文章点赞数统计失败：{}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 在写事务中重新统计点赞数。写连接只有一个，统计期间不会有新的点赞提交；
+     * 此时缓冲区中的增量都来自已提交的点赞，已包含在统计结果中，取出丢弃，事务回滚时由调用方放回
+     * @param captured 接收取出的增量
+     * @return 受影响的行数；存在停机标记时返回 null，只删除标记不统计
+     */
+    private Integer recount(Map<String, Long> captured) {
+        if (systemMarkerRepository.existsById(FLUSHED_ON_SHUTDOWN)) {
+            // 标记只使用一次，本次运行异常退出时下次启动会重新统计
+            systemMarkerRepository.deleteById(FLUSHED_ON_SHUTDOWN);
+            return null;
+        }
+        for (String articleId : pending.keySet()) {
+            Long delta = pending.remove(articleId);
+            if (delta != null) {
+                captured.put(articleId, delta);
+            }
+        }
+        return articleRepository.recalculateLikeCounts();
+    }
+
+    /**
+     * 应用关闭前写回剩余的增量，全部写回后记录停机标记，下次启动时无需重新统计
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            flushPending();
+            if (pending.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status ->
+                    systemMarkerRepository.save(SystemMarker.of(FLUSHED_ON_SHUTDOWN)));
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("记录点赞数停机标记失败：{}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+}
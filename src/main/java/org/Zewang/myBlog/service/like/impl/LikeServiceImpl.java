@@ -4,13 +4,21 @@ import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.Zewang.myBlog.common.exception.BusinessException;
-import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.model.Like;
+import org.Zewang.myBlog.model.SystemMarker;
 import org.Zewang.myBlog.repository.ArticleRepository;
 import org.Zewang.myBlog.repository.LikeRepository;
+import org.Zewang.myBlog.repository.SystemMarkerRepository;
 import org.Zewang.myBlog.service.like.LikeService;
+import org.Zewang.myBlog.service.like.counter.LikeCountBuffer;
+import org.Zewang.myBlog.service.write.WritePipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author "Zewang"
@@ -21,20 +29,32 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class LikeServiceImpl implements LikeService {
+    private static final Logger log = LoggerFactory.getLogger(LikeServiceImpl.class);
+
+    // 历史点赞的用户名已替换为用户ID的标记，存在时启动不再扫描点赞表
+    static final String USER_IDS_MIGRATED = "like-user-ids-migrated";
     
     private final LikeRepository likeRepository;
     private final ArticleRepository articleRepository;
+    private final LikeCountBuffer likeCountBuffer;
+    private final WritePipeline writePipeline;
+    private final SystemMarkerRepository systemMarkerRepository;
+    private final TransactionTemplate transactionTemplate;
     
     @Override
-    @Transactional
     public Like createLike(String articleId, String userId, String username) {
+        // 由写入管道与其他评论、点赞合并到同一个事务提交
+        return writePipeline.execute(() -> insertLike(articleId, userId, username));
+    }
+
+    private Like insertLike(String articleId, String userId, String username) {
         // 检查文章是否存在
-        Article article = articleRepository.findById(articleId)
-            .orElseThrow(() -> new BusinessException("文章不存在"));
+        if (!articleRepository.existsById(articleId)) {
+            throw new BusinessException("文章不存在");
+        }
         
         // 检查是否已经点赞
-        Like existingLike = likeRepository.findByUserIdAndArticleId(userId, articleId);
-        if (existingLike != null) {
+        if (likeRepository.existsByUserIdAndArticleId(userId, articleId)) {
             throw new BusinessException("已经点赞过该文章");
         }
         
@@ -48,51 +68,69 @@ public class LikeServiceImpl implements LikeService {
         
         Like savedLike = likeRepository.save(like);
         
-        // 更新文章点赞数
-        article.setLikeCount(article.getLikeCount() + 1);
-        articleRepository.save(article);
+        // 点赞数由缓冲区合并后批量写回
+        likeCountBuffer.add(articleId, 1);
         
         return savedLike;
     }
     
     @Override
-    @Transactional
     public void cancelLike(String articleId, String userId) {
-        // 检查点赞记录是否存在
-        Like like = likeRepository.findByUserIdAndArticleId(userId, articleId);
-        if (like == null) {
-            throw new BusinessException("未点赞该文章");
-        }
-        
-        // 删除点赞记录
-        likeRepository.deleteByUserIdAndArticleId(userId, articleId);
-        
-        // 更新文章点赞数
-        Article article = articleRepository.findById(articleId).orElse(null);
-        if (article != null && article.getLikeCount() > 0) {
-            article.setLikeCount(article.getLikeCount() - 1);
-            articleRepository.save(article);
-        }
+        writePipeline.execute(() -> {
+            // 删除点赞记录，没有删除任何记录说明未点赞
+            if (likeRepository.deleteByUserIdAndArticleId(userId, articleId) == 0) {
+                throw new BusinessException("未点赞该文章");
+            }
+            
+            // 点赞数由缓冲区合并后批量写回
+            likeCountBuffer.add(articleId, -1);
+            return null;
+        });
     }
     
     @Override
+    @Transactional(readOnly = true)
     public boolean isLiked(String articleId, String userId) {
-        Like like = likeRepository.findByUserIdAndArticleId(userId, articleId);
-        return like != null;
+        return likeRepository.existsByUserIdAndArticleId(userId, articleId);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Like> getLikesByArticleId(String articleId) {
         return likeRepository.findByArticleId(articleId);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Like> getLikesByUserId(String userId) {
         return likeRepository.findByUserId(userId);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public long countLikesByArticleId(String articleId) {
         return likeRepository.countByArticleId(articleId);
     }
+
+    /**
+     * 启动时把历史点赞中以用户名记录的 userId 换成用户ID，完成后写入标记，只执行一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyUserIds() {
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                if (systemMarkerRepository.existsById(USER_IDS_MIGRATED)) {
+                    return null;
+                }
+                int replaced = likeRepository.replaceUsernameUserIds();
+                systemMarkerRepository.save(SystemMarker.of(USER_IDS_MIGRATED));
+                return replaced;
+            });
+            if (rows != null && rows > 0) {
+                log.info("已将{}条点赞记录的用户名替换为用户ID", rows);
+            }
+        } catch (Exception e) {
+            log.warn("迁移点赞记录的用户ID失败：{}", e.getMessage());
+        }
+    }
 }
\ No newline at end of file
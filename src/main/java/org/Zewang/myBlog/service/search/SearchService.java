@@ -1,5 +1,6 @@
 package org.Zewang.myBlog.service.search;
 
+import org.Zewang.myBlog.dto.ArticleSearchHitDTO;
 import org.Zewang.myBlog.dto.SearchArticleDTO;
 import org.Zewang.myBlog.model.Article;
 import org.springframework.data.domain.Page;
@@ -27,4 +28,14 @@ public interface SearchService {
      * @return 分页后的文章列表
      */
     Page<Article> quickSearch(String keyword, Integer pageNum, Integer pageSize);
+    
+    /**
+     * 全文检索已发布文章（SQLite FTS5，按 BM25 相关度排序并高亮命中片段）
+     * FTS5 不可用时回退到内存倒排索引，此时结果按创建时间排序且不带摘要
+     * @param keyword 搜索关键词，多个词项用空格分隔
+     * @param pageNum 当前页码
+     * @param pageSize 每页大小
+     * @return 分页后的检索结果
+     */
+    Page<ArticleSearchHitDTO> fullTextSearch(String keyword, Integer pageNum, Integer pageSize);
 }
\ No newline at end of file
@@ -1,15 +1,29 @@
 package org.Zewang.myBlog.service.search.impl;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.Zewang.myBlog.dto.ArticleSearchHitDTO;
 import org.Zewang.myBlog.dto.SearchArticleDTO;
 import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.model.enums.ArticleStatus;
+import org.Zewang.myBlog.repository.ArticleFullTextRepository;
 import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.repository.ArticleSpecifications;
 import org.Zewang.myBlog.service.search.SearchService;
+import org.Zewang.myBlog.service.search.index.ArticleSearchIndex;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author "Zewang"
@@ -21,9 +35,15 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class SearchServiceImpl implements SearchService {
     
+    // IN 条件最多绑定的ID个数，远小于 SQLite 的参数个数上限
+    private static final int MAX_BOUND_IDS = 500;
+
     private final ArticleRepository articleRepository;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final ArticleFullTextRepository articleFullTextRepository;
     
     @Override
+    @Transactional(readOnly = true)
     public Page<Article> searchArticles(SearchArticleDTO searchDTO) {
         // 构建排序条件
         Sort sort = buildSort(searchDTO);
@@ -35,13 +55,25 @@ public class SearchServiceImpl implements SearchService {
             sort
         );
         
-        // 执行查询
-        // 注意：这里简化了查询逻辑，实际项目中可能需要使用JPA Criteria API或JPQL来实现复杂查询
-        // 由于时间限制，这里直接返回所有文章，后续可以根据需要扩展
-        return articleRepository.findAll(pageRequest);
+        // 关键词先在倒排索引中求出候选ID，再与其他条件一起下推到同一条SQL中
+        List<String> keywordHits = matchKeyword(searchDTO.getKeyword());
+        if (keywordHits != null && keywordHits.isEmpty()) {
+            return Page.empty(pageRequest);
+        }
+
+        Specification<Article> filters = Specification
+            .where(ArticleSpecifications.hasCategory(searchDTO.getCategoryId()))
+            .and(ArticleSpecifications.hasAuthor(searchDTO.getAuthor()))
+            .and(ArticleSpecifications.hasStatus(
+                searchDTO.getStatus() != null ? ArticleStatus.fromCode(searchDTO.getStatus()) : null));
+        if (keywordHits == null) {
+            return articleRepository.findAll(filters, pageRequest);
+        }
+        return findByKeywordHits(keywordHits, filters, pageRequest);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Page<Article> quickSearch(String keyword, Integer pageNum, Integer pageSize) {
         // 默认按创建时间降序排序
         Sort sort = Sort.by(Sort.Direction.DESC, "createTime");
@@ -52,10 +84,102 @@ public class SearchServiceImpl implements SearchService {
             sort
         );
         
-        // 执行查询
-        // 注意：这里简化了查询逻辑，实际项目中可能需要使用JPA Criteria API或JPQL来实现复杂查询
-        // 由于时间限制，这里直接返回所有文章，后续可以根据需要扩展
-        return articleRepository.findAll(pageRequest);
+        List<String> keywordHits = matchKeyword(keyword);
+        if (keywordHits == null) {
+            return articleRepository.findAll(pageRequest);
+        }
+        if (keywordHits.isEmpty()) {
+            return Page.empty(pageRequest);
+        }
+        return findByKeywordHits(keywordHits, null, pageRequest);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ArticleSearchHitDTO> fullTextSearch(String keyword, Integer pageNum, Integer pageSize) {
+        PageRequest pageRequest = PageRequest.of(
+            (pageNum != null && pageNum > 0) ? pageNum - 1 : 0,
+            (pageSize != null && pageSize > 0 && pageSize <= 100) ? pageSize : 10
+        );
+        if (keyword == null || keyword.isBlank()) {
+            return Page.empty(pageRequest);
+        }
+
+        if (!articleFullTextRepository.isAvailable()) {
+            // 回退：内存倒排索引 + 状态过滤
+            List<String> keywordHits = articleSearchIndex.search(keyword);
+            if (keywordHits.isEmpty()) {
+                return Page.empty(pageRequest);
+            }
+            PageRequest sorted = pageRequest.withSort(Sort.by(Sort.Direction.DESC, "createTime"));
+            return findByKeywordHits(keywordHits, ArticleSpecifications.hasStatus(ArticleStatus.PUBLISHED), sorted)
+                .map(article -> ArticleSearchHitDTO.of(article, article.getTitle(), null, null));
+        }
+
+        // JPA 以序号保存枚举
+        int status = ArticleStatus.PUBLISHED.ordinal();
+        long total = articleFullTextRepository.count(keyword, status);
+        if (total == 0) {
+            return Page.empty(pageRequest);
+        }
+        List<ArticleFullTextRepository.Hit> hits = articleFullTextRepository.search(
+            keyword, status, pageRequest.getOffset(), pageRequest.getPageSize());
+
+        // 只加载当前页命中的文章
+        Map<String, Article> articles = articleRepository.findAllById(
+                hits.stream().map(ArticleFullTextRepository.Hit::articleId).toList())
+            .stream()
+            .collect(Collectors.toMap(Article::getId, Function.identity()));
+        List<ArticleSearchHitDTO> content = hits.stream()
+            .filter(hit -> articles.containsKey(hit.articleId()))
+            .map(hit -> ArticleSearchHitDTO.of(articles.get(hit.articleId()), hit.title(), hit.snippet(), hit.score()))
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageRequest, total);
+    }
+
+    /**
+     * 在关键词命中的文章中按其他条件分页查询
+     * 命中数不多时把ID作为 IN 条件与其他条件一起下推到同一条SQL中；
+     * 命中过多时不绑定ID，按其他条件和排序只查询ID列，在内存中与命中集合求交后分页，只加载本页文章
+     * @param keywordHits 关键词命中的文章ID
+     * @param filters 其他查询条件，可为 null
+     * @param pageRequest 分页和排序
+     * @return 文章分页
+     */
+    private Page<Article> findByKeywordHits(List<String> keywordHits, Specification<Article> filters,
+                                            PageRequest pageRequest) {
+        if (keywordHits.size() <= MAX_BOUND_IDS) {
+            return articleRepository.findAll(
+                Specification.where(ArticleSpecifications.idIn(keywordHits)).and(filters), pageRequest);
+        }
+
+        Set<String> hitSet = new HashSet<>(keywordHits);
+        List<String> matched = articleRepository.findIds(filters, pageRequest.getSort()).stream()
+            .filter(hitSet::contains)
+            .toList();
+        int from = (int) Math.min(pageRequest.getOffset(), matched.size());
+        int to = Math.min(from + pageRequest.getPageSize(), matched.size());
+        List<String> pageIds = matched.subList(from, to);
+
+        Map<String, Article> articles = articleRepository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(Article::getId, Function.identity()));
+        List<Article> content = pageIds.stream()
+            .map(articles::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageRequest, matched.size());
+    }
+
+    /**
+     * 关键词匹配
+     * @param keyword 关键词
+     * @return 命中的文章ID；关键词为空时返回 null，表示不按关键词过滤
+     */
+    private List<String> matchKeyword(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        return articleSearchIndex.search(keyword);
     }
     
     /**
@@ -70,12 +194,16 @@ public class SearchServiceImpl implements SearchService {
         String sortField;
         switch (searchDTO.getSortBy()) {
             case 2:
+                sortField = "viewCount"; // 按阅读量排序
+                break;
+            case 3:
                 sortField = "likeCount"; // 按点赞数排序
                 break;
             default:
                 sortField = "createTime"; // 默认按时间排序
         }
         
-        return Sort.by(direction, sortField);
+        // 追加ID作为次级排序，保证分页结果稳定
+        return Sort.by(direction, sortField).and(Sort.by(Sort.Direction.DESC, "id"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package org.Zewang.myBlog.service.search.index;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.Zewang.myBlog.model.Article;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 文章标题和正文的内存倒排索引
+ *               启动时全量构建，文章创建、更新、删除时增量维护，查询时只访问索引而不扫描文章正文；
+ *               在事务中调用时，等事务提交后再修改索引，事务回滚时索引保持不变
+ * @email "Zewang0217@outlook.com"
+ */
+@Component
+public class ArticleSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(ArticleSearchIndex.class);
+
+    private final ArticleRepository articleRepository;
+
+    // 词项 -> 文章ID集合；使用有序 Map 以支持英文前缀查询
+    private final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+    // 文章ID -> 已索引词项，用于更新和删除时撤销旧的倒排记录
+    private final Map<String, IndexedArticle> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record IndexedArticle(Set<String> terms, LocalDateTime createTime) {
+    }
+
+    public ArticleSearchIndex(ArticleRepository articleRepository) {
+        this.articleRepository = articleRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        try {
+            List<Article> articles = articleRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                documents.clear();
+                articles.forEach(this::addUnlocked);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("文章搜索索引构建完成，文章数：{}，词项数：{}", articles.size(), postings.size());
+        } catch (Exception e) {
+            log.error("文章搜索索引构建失败", e);
+        }
+    }
+
+    /**
+     * 新增或更新文章的索引
+     */
+    public void index(Article article) {
+        if (article == null || article.getId() == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(article.getId());
+                addUnlocked(article);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 从索引中移除文章
+     */
+    public void remove(String articleId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(articleId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * 按关键词检索，所有查询词项都命中的文章才会返回
+     * @param keyword 关键词
+     * @return 命中的文章ID，按创建时间倒序
+     */
+    public List<String> search(String keyword) {
+        Set<String> queryTerms = BigramTokenizer.tokenizeQuery(keyword);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Set<String>> candidates = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                Set<String> matched = lookup(term);
+                if (matched.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                candidates.add(matched);
+            }
+            // 从最小的集合开始求交集
+            candidates.sort(Comparator.comparingInt(Set::size));
+            Set<String> result = new HashSet<>(candidates.get(0));
+            for (int i = 1; i < candidates.size() && !result.isEmpty(); i++) {
+                result.retainAll(candidates.get(i));
+            }
+
+            List<String> ids = new ArrayList<>(result);
+            ids.sort(Comparator.comparing(
+                (String id) -> documents.get(id).createTime(),
+                Comparator.nullsLast(Comparator.reverseOrder())));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> lookup(String term) {
+        if (BigramTokenizer.isCjkTerm(term)) {
+            return postings.getOrDefault(term, Collections.emptySet());
+        }
+        // 英文和数字按前缀匹配，尽量保持原来 contains 的查询体验
+        NavigableMap<String, Set<String>> range = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+        Set<String> union = new HashSet<>();
+        range.values().forEach(union::addAll);
+        return union;
+    }
+
+    private void addUnlocked(Article article) {
+        Set<String> terms = BigramTokenizer.tokenizeDocument(article.getTitle());
+        terms.addAll(BigramTokenizer.tokenizeDocument(article.getContent()));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, k -> new HashSet<>()).add(article.getId());
+        }
+        documents.put(article.getId(), new IndexedArticle(terms, article.getCreateTime()));
+    }
+
+    private void removeUnlocked(String articleId) {
+        IndexedArticle existing = documents.remove(articleId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Set<String> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(articleId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
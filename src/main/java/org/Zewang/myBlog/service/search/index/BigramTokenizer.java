@@ -0,0 +1,111 @@
+package org.Zewang.myBlog.service.search.index;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 面向中英文混排文本的分词器
+ *               中日韩文字按二元组（bigram）切分，英文和数字按整词切分并统一转为小写
+ * @email "Zewang0217@outlook.com"
+ */
+public final class BigramTokenizer {
+
+    /**
+     * 单个英文词的最大长度，超过部分截断，避免超长字符串（如 base64 图片）撑大词典
+     */
+    static final int MAX_WORD_LENGTH = 32;
+
+    private BigramTokenizer() {
+    }
+
+    /**
+     * 文档分词：中文同时输出单字和二元组，保证单字查询也能命中
+     * @param text 原始文本
+     * @return 去重后的词项集合
+     */
+    public static Set<String> tokenizeDocument(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 查询分词：中文连续片段只输出二元组（单字片段输出单字），英文输出整词用于前缀匹配
+     * @param text 查询关键词
+     * @return 去重后的词项集合
+     */
+    public static Set<String> tokenizeQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 判断词项是否为中日韩文字词项（查询时中文精确匹配，英文按前缀匹配）
+     */
+    public static boolean isCjkTerm(String term) {
+        return !term.isEmpty() && isCjk(term.codePointAt(0));
+    }
+
+    private static Set<String> tokenize(String text, boolean emitUnigrams) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        int prevCjk = -1; // 上一个中日韩字符，-1 表示当前不在中文片段中
+        boolean cjkRunSingle = false; // 当前中文片段是否只有一个字
+
+        int i = 0;
+        while (i < normalized.length()) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (isCjk(cp)) {
+                flushWord(word, terms);
+                if (prevCjk == -1) {
+                    cjkRunSingle = true;
+                } else {
+                    terms.add(new StringBuilder().appendCodePoint(prevCjk).appendCodePoint(cp).toString());
+                    cjkRunSingle = false;
+                }
+                if (emitUnigrams) {
+                    terms.add(new String(Character.toChars(cp)));
+                }
+                prevCjk = cp;
+            } else {
+                if (prevCjk != -1 && cjkRunSingle && !emitUnigrams) {
+                    terms.add(new String(Character.toChars(prevCjk)));
+                }
+                prevCjk = -1;
+                if (Character.isLetterOrDigit(cp)) {
+                    if (word.length() < MAX_WORD_LENGTH) {
+                        word.appendCodePoint(cp);
+                    }
+                } else {
+                    flushWord(word, terms);
+                }
+            }
+        }
+        if (prevCjk != -1 && cjkRunSingle && !emitUnigrams) {
+            terms.add(new String(Character.toChars(prevCjk)));
+        }
+        flushWord(word, terms);
+        return terms;
+    }
+
+    private static void flushWord(StringBuilder word, Set<String> terms) {
+        if (word.length() > 0) {
+            terms.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,19 @@
+package org.Zewang.myBlog.service.stats;
+
+import org.Zewang.myBlog.dto.DashboardStatsDTO;
+
+/**
+ * 仪表盘统计服务接口
+ */
+public interface DashboardStatsService {
+
+    /**
+     * 获取仪表盘统计数据快照，快照由后台定时刷新
+     */
+    DashboardStatsDTO getStats();
+
+    /**
+     * 立即重新统计并替换快照
+     */
+    DashboardStatsDTO refresh();
+}
@@ -0,0 +1,158 @@
+package org.Zewang.myBlog.service.stats.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import org.Zewang.myBlog.dto.DashboardStatsDTO;
+import org.Zewang.myBlog.dto.DashboardStatsDTO.CategoryCount;
+import org.Zewang.myBlog.dto.DashboardStatsDTO.RegistrationPoint;
+import org.Zewang.myBlog.model.Comment;
+import org.Zewang.myBlog.model.enums.ArticleStatus;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.repository.CategoryRepository;
+import org.Zewang.myBlog.repository.CommentRepository;
+import org.Zewang.myBlog.repository.UserRepository;
+import org.Zewang.myBlog.service.stats.DashboardStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 仪表盘统计服务实现
+ *               每次统计只执行几条分组查询，结果保存为快照，请求直接返回快照，后台按固定间隔刷新
+ * @email "Zewang0217@outlook.com"
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsServiceImpl implements DashboardStatsService {
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsServiceImpl.class);
+
+    /**
+     * 注册趋势统计的天数（含今天）
+     */
+    private static final int TREND_DAYS = 7;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final UserRepository userRepository;
+    private final ArticleRepository articleRepository;
+    private final CategoryRepository categoryRepository;
+    private final CommentRepository commentRepository;
+
+    private volatile DashboardStatsDTO snapshot;
+
+    // 同一时刻只做一次统计；统计期间会访问数据库，用 ReentrantLock 避免固定虚拟线程的载体线程
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Override
+    public DashboardStatsDTO getStats() {
+        DashboardStatsDTO current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardStatsDTO refresh() {
+        refreshLock.lock();
+        try {
+            return doRefresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private DashboardStatsDTO doRefresh() {
+        long start = System.currentTimeMillis();
+
+        long totalUsers = userRepository.count();
+
+        Map<ArticleStatus, Long> articleCounts = new EnumMap<>(ArticleStatus.class);
+        for (Object[] row : articleRepository.countGroupByStatus()) {
+            if (row[0] instanceof ArticleStatus status) {
+                articleCounts.put(status, ((Number) row[1]).longValue());
+            }
+        }
+        long totalArticles = articleCounts.values().stream().mapToLong(Long::longValue).sum();
+
+        List<CategoryCount> categoryStats = new ArrayList<>();
+        for (Object[] row : categoryRepository.countArticlesGroupByCategory()) {
+            categoryStats.add(new CategoryCount((String) row[0], ((Number) row[1]).longValue()));
+        }
+
+        long totalComments = 0;
+        long pendingComments = 0;
+        for (Object[] row : commentRepository.countGroupByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            totalComments += count;
+            if (row[0] instanceof Integer status && status == Comment.STATUS_PENDING) {
+                pendingComments = count;
+            }
+        }
+
+        DashboardStatsDTO stats = new DashboardStatsDTO(
+            totalUsers,
+            // 暂未记录登录时间，活跃用户沿用用户总数
+            totalUsers,
+            getRegistrationTrend(),
+            totalArticles,
+            articleCounts.getOrDefault(ArticleStatus.PUBLISHED, 0L),
+            articleCounts.getOrDefault(ArticleStatus.DRAFT, 0L),
+            categoryStats,
+            totalComments,
+            pendingComments,
+            LocalDateTime.now());
+        snapshot = stats;
+        log.debug("仪表盘统计完成，耗时{}ms", System.currentTimeMillis() - start);
+        return stats;
+    }
+
+    /**
+     * 定时刷新快照；尚未有人访问过仪表盘时不做统计
+     */
+    @Scheduled(fixedDelayString = "${blog.dashboard.stats-refresh-interval-ms:60000}",
+        initialDelayString = "${blog.dashboard.stats-refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("刷新仪表盘统计失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 最近 {@link #TREND_DAYS} 天每日注册人数，没有注册的日期补0
+     */
+    private List<RegistrationPoint> getRegistrationTrend() {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        LocalDate firstDay = today.minusDays(TREND_DAYS - 1);
+        long since = firstDay.atStartOfDay(zone).toInstant().toEpochMilli();
+        long offset = zone.getRules().getOffset(firstDay.atStartOfDay()).getTotalSeconds() * 1000L;
+
+        Map<Long, Long> countsByDay = new HashMap<>();
+        for (Object[] row : userRepository.countRegistrationsByDay(since, offset)) {
+            countsByDay.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        List<RegistrationPoint> trend = new ArrayList<>(TREND_DAYS);
+        for (LocalDate date = firstDay; !date.isAfter(today); date = date.plusDays(1)) {
+            trend.add(new RegistrationPoint(date.format(DATE_FORMATTER),
+                countsByDay.getOrDefault(date.toEpochDay(), 0L)));
+        }
+        return trend;
+    }
+}
@@ -1,13 +1,16 @@
 package org.Zewang.myBlog.service.user;
 
+import org.Zewang.myBlog.common.security.AuthenticatedUser;
 import org.Zewang.myBlog.model.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.util.List;
-import java.util.Map;
 
 public interface UserService extends UserDetailsService { // 继承UserDetailsService, 用于获取用户信息
     User findByUsername(String username);
+
+    // 按用户名加载认证用户（用户ID、用户名、角色），与 loadUserByUsername 共用缓存
+    AuthenticatedUser loadAuthenticatedUser(String username);
     
     User findById(String id);
 
@@ -18,8 +21,6 @@ public interface UserService extends UserDetailsService { // 继承UserDetailsSe
     
     long countActiveUsers();
     
-    List<Map<String, Object>> getUserRegistrationTrend();
-    
     List<User> getAllUsers();
     
     User updateUser(User user);
@@ -3,20 +3,21 @@ package org.Zewang.myBlog.service.user.impl;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.Zewang.myBlog.common.security.AuthenticatedUser;
+import org.Zewang.myBlog.config.CacheConfig;
 import org.Zewang.myBlog.model.User;
 import org.Zewang.myBlog.repository.UserRepository;
 import org.Zewang.myBlog.service.user.UserService;
+import org.Zewang.myBlog.service.user.token.TokenVersionRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author "Zewang"
@@ -31,10 +32,22 @@ public class UserServiceImpl implements UserService {
 
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    /**
+     * 缓存中保存的认证信息；每次返回新的 UserDetails，
+     * 登录认证后 Spring Security 清除凭据时不会影响缓存的密码
+     */
+    private record CachedUser(String id, String username, String password, String role) {
+    }
 
-    public UserServiceImpl(PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public UserServiceImpl(PasswordEncoder passwordEncoder, UserRepository userRepository, CacheManager cacheManager,
+                           TokenVersionRegistry tokenVersionRegistry) {
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @PostConstruct
@@ -46,7 +59,8 @@ public class UserServiceImpl implements UserService {
                 admin.setUsername("admin");
                 admin.setPassword(passwordEncoder.encode("admin123"));
                 admin.setRole("ROLE_ADMIN");
-                userRepository.save(admin);
+                User saved = userRepository.save(admin);
+                tokenVersionRegistry.register(saved.getId(), saved.getTokenVersion());
             }
         } catch (Exception e) {
             log.info("初始化默认管理员失败：" + e.getMessage());
@@ -54,25 +68,50 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = findByUsername(username);
-        if (user == null) {
-            throw new UsernameNotFoundException("用户不存在");
-        }
-
+        CachedUser cached = loadCachedUser(username);
         return org.springframework.security.core.userdetails.User.builder()
-            .username(user.getUsername())
-            .password(user.getPassword())
-            .roles(user.getRole().replace("ROLE_", ""))
+            .username(cached.username())
+            .password(cached.password())
+            .roles(cached.role().replace("ROLE_", ""))
             .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public AuthenticatedUser loadAuthenticatedUser(String username) {
+        CachedUser cached = loadCachedUser(username);
+        return new AuthenticatedUser(cached.id(), cached.username(), cached.role());
+    }
+
+    /**
+     * 认证路径上按用户名读取用户，先查缓存；不存在的用户不缓存，以免注册后仍被拒绝
+     */
+    private CachedUser loadCachedUser(String username) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_DETAILS);
+        CachedUser cached = cache != null ? cache.get(username, CachedUser.class) : null;
+        if (cached == null) {
+            User user = findByUsername(username);
+            if (user == null) {
+                throw new UsernameNotFoundException("用户不存在");
+            }
+            cached = new CachedUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+            if (cache != null) {
+                cache.put(username, cached);
+            }
+        }
+        return cached;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
         return userRepository.findByUsername(username).orElse(null);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public User findById(String id) {
         return userRepository.findById(id).orElse(null);
     }
@@ -85,15 +124,20 @@ public class UserServiceImpl implements UserService {
         if (user.getRole() == null) {
             user.setRole("ROLE_USER");
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        tokenVersionRegistry.register(saved.getId(), saved.getTokenVersion());
+        evictUserDetails(saved.getUsername());
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countTotalUsers() {
         return userRepository.count();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countActiveUsers() {
         // 简化实现，返回所有用户数
         // 实际项目中应该根据用户最后登录时间等判断活跃用户
@@ -101,24 +145,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<Map<String, Object>> getUserRegistrationTrend() {
-        // 简化实现，返回模拟数据
-        // 实际项目中应该根据用户创建时间统计
-        List<Map<String, Object>> trend = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            Map<String, Object> dataPoint = new HashMap<>();
-            dataPoint.put("date", date.format(formatter));
-            dataPoint.put("count", (int) (Math.random() * 10) + 1);
-            trend.add(dataPoint);
-        }
-        
-        return trend;
-    }
-
-    @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -129,11 +156,33 @@ public class UserServiceImpl implements UserService {
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        // 用户名、角色或密码可能被修改：令牌版本加一使已签发的令牌失效，新旧用户名的缓存都要清除
+        User previous = user.getId() != null ? userRepository.findById(user.getId()).orElse(null) : null;
+        user.setTokenVersion(previous != null ? previous.getTokenVersion() + 1 : 0);
+        User saved = userRepository.save(user);
+        tokenVersionRegistry.register(saved.getId(), saved.getTokenVersion());
+        if (previous != null) {
+            evictUserDetails(previous.getUsername());
+        }
+        evictUserDetails(saved.getUsername());
+        return saved;
     }
 
     @Override
     public void deleteUser(String userId) {
+        String username = userRepository.findById(userId).map(User::getUsername).orElse(null);
         userRepository.deleteById(userId);
+        tokenVersionRegistry.remove(userId);
+        evictUserDetails(username);
+    }
+
+    /**
+     * 用户信息变化后移除认证缓存
+     */
+    private void evictUserDetails(String username) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_DETAILS);
+        if (cache != null && username != null) {
+            cache.evict(username);
+        }
     }
 }
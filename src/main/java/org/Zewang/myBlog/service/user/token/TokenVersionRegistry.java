@@ -0,0 +1,66 @@
+package org.Zewang.myBlog.service.user.token;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.Zewang.myBlog.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 用户令牌版本登记表
+ *               令牌中携带签发时的用户令牌版本；修改用户信息时版本加一，旧令牌随即失效，
+ *               用户被删除后其令牌全部失效。版本号持久化在 users 表，启动时整表加载到内存，
+ *               认证时只需一次哈希查找，不访问数据库
+ * @email "Zewang0217@outlook.com"
+ */
+@Component
+public class TokenVersionRegistry {
+    private static final Logger log = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    private final UserRepository userRepository;
+    private final Map<String, Integer> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        for (Object[] row : userRepository.findTokenVersions()) {
+            versions.put((String) row[0], row[1] == null ? 0 : ((Number) row[1]).intValue());
+        }
+        log.info("已加载{}个用户的令牌版本", versions.size());
+    }
+
+    /**
+     * 登记用户当前的令牌版本，新用户或用户信息修改后调用
+     * @param userId 用户ID
+     * @param version 令牌版本
+     */
+    public void register(String userId, int version) {
+        versions.put(userId, version);
+    }
+
+    /**
+     * 移除已删除的用户，其令牌全部失效
+     * @param userId 用户ID
+     */
+    public void remove(String userId) {
+        versions.remove(userId);
+    }
+
+    /**
+     * 令牌版本是否仍然有效
+     * @param userId 用户ID
+     * @param version 令牌中的版本，为空视为0
+     * @return 用户存在且版本与当前版本一致时返回 true
+     */
+    public boolean isCurrent(String userId, Integer version) {
+        Integer current = versions.get(userId);
+        return current != null && current == (version == null ? 0 : version);
+    }
+}
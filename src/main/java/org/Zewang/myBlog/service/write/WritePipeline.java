@@ -0,0 +1,311 @@
+package org.Zewang.myBlog.service.write;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.Zewang.myBlog.common.exception.BusinessException;
+import org.Zewang.myBlog.common.exception.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * @author "Zewang"
+ * @version 1.0
+ * @description: 单写线程的数据库写入管道
+ *               服务把写操作提交到有界队列，由唯一的写线程取出：第一个写操作到达后最多再等 batchWindowMillis，
+ *               把期间到达的写操作放进同一个事务依次执行并一次提交（组提交），提交成功后才完成各调用方的 Future。
+ *               批内某个写操作抛出异常时整批回滚：它之前的写操作重新组成一批提交，它本身以该异常失败，
+ *               之后的写操作继续组批；提交阶段失败时无法确定是哪个写操作导致的，改为逐个单独提交。
+ *               因此写操作可能被执行多次，只能读写数据库，其他副作用需注册为事务提交后的回调
+ * @email "Zewang0217@outlook.com"
+ */
+@Component
+public class WritePipeline {
+    private static final Logger log = LoggerFactory.getLogger(WritePipeline.class);
+
+    private static final String REJECTED_MESSAGE = "写入请求过多，请稍后重试";
+
+    // 写线程没有任务时的轮询间隔，用于检查是否需要停止
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long batchWindowNanos;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final BlockingQueue<Task<?>> queue;
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder committedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder retriedBatchCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAccumulator largestBatch = new LongAccumulator(Math::max, 0);
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * 一个写操作及其调用方等待的结果
+     */
+    private static final class Task<T> {
+        private final Supplier<T> mutation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+
+        private Task(Supplier<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        private void run() {
+            result = mutation.get();
+        }
+
+        private void complete() {
+            future.complete(result);
+        }
+    }
+
+    public WritePipeline(PlatformTransactionManager transactionManager,
+                         @Value("${blog.write-pipeline.enabled:true}") boolean enabled,
+                         @Value("${blog.write-pipeline.batch-window-ms:2}") long batchWindowMillis,
+                         @Value("${blog.write-pipeline.max-batch-size:64}") int maxBatchSize,
+                         @Value("${blog.write-pipeline.queue-capacity:1024}") int queueCapacity,
+                         @Value("${blog.write-pipeline.timeout-ms:10000}") long timeoutMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "write-pipeline");
+        writer.start();
+    }
+
+    /**
+     * 停止接收新的写操作，执行完队列中剩余的写操作后退出写线程
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * 在写线程中执行写操作并等待提交完成
+     * 已处于事务中、管道未开启或已停止时，直接在当前线程的事务中执行
+     * @param mutation 写操作，只能读写数据库，可能被执行多次
+     * @return 写操作的返回值
+     * @throws TooManyRequestsException 队列已满，或排队超时仍未开始执行
+     */
+    public <T> T execute(Supplier<T> mutation) {
+        if (!running || Thread.currentThread() == writer
+            || TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 调用方的事务占用着写连接，交给写线程会互相等待
+            return transactionTemplate.execute(status -> mutation.get());
+        }
+
+        Task<T> task = new Task<>(mutation);
+        if (!queue.offer(task)) {
+            rejectedCount.increment();
+            throw new TooManyRequestsException(REJECTED_MESSAGE);
+        }
+        try {
+            return task.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 仍在排队的直接撤回；已开始执行的很快会提交，再等待一个超时时间
+            if (queue.remove(task)) {
+                rejectedCount.increment();
+                throw new TooManyRequestsException(REJECTED_MESSAGE);
+            }
+            return awaitStarted(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("等待写入结果时被中断");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * 获取写入管道统计
+     * @return 队列深度、批次数、平均及最大批大小、成功/失败/拒绝的写操作数、回滚后重试的批次数
+     */
+    public Map<String, Object> stats() {
+        long batches = batchCount.sum();
+        long committed = committedCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", running);
+        stats.put("queueDepth", queue.size());
+        stats.put("batchCount", batches);
+        stats.put("committedCount", committed);
+        stats.put("avgBatchSize", batches == 0 ? 0.0 : (double) committed / batches);
+        stats.put("largestBatch", largestBatch.get());
+        stats.put("failedCount", failedCount.sum());
+        stats.put("retriedBatchCount", retriedBatchCount.sum());
+        stats.put("rejectedCount", rejectedCount.sum());
+        return stats;
+    }
+
+    private void writeLoop() {
+        List<Task<?>> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Task<?> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.nanoTime() + batchWindowNanos;
+                    while (batch.size() < maxBatchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        Task<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    commit(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Throwable e) {
+                    // 写操作或事务抛出 Error 等未预期的异常时，该批未完成的调用方以此失败，写线程继续处理后续批次
+                    log.error("写入管道处理批次失败", e);
+                    failAll(batch, e);
+                } finally {
+                    failAll(batch, new BusinessException("写入管道已停止"));
+                    batch.clear();
+                }
+            }
+        } finally {
+            // 写线程退出后不再接收写操作（execute 改为直接执行），仍在排队的写操作全部失败
+            running = false;
+            List<Task<?>> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            failAll(remaining, new BusinessException("写入管道已停止"));
+        }
+    }
+
+    private void failAll(List<Task<?>> tasks, Throwable cause) {
+        for (Task<?> task : tasks) {
+            if (task.future.completeExceptionally(cause)) {
+                failedCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 组提交一批写操作，批内有写操作失败时按类注释所述拆分重试
+     */
+    private void commit(List<Task<?>> batch) {
+        int start = 0;
+        while (start < batch.size()) {
+            List<Task<?>> group = batch.subList(start, batch.size());
+            int[] failedIndex = {-1};
+            RuntimeException[] failure = {null};
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int i = 0; i < group.size(); i++) {
+                        try {
+                            group.get(i).run();
+                        } catch (RuntimeException e) {
+                            failedIndex[0] = i;
+                            failure[0] = e;
+                            status.setRollbackOnly();
+                            return;
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                commitIndividually(group, e);
+                return;
+            }
+
+            if (failedIndex[0] < 0) {
+                batchCount.increment();
+                committedCount.add(group.size());
+                largestBatch.accumulate(group.size());
+                group.forEach(Task::complete);
+                return;
+            }
+
+            retriedBatchCount.increment();
+            if (failedIndex[0] > 0) {
+                commit(new ArrayList<>(group.subList(0, failedIndex[0])));
+            }
+            failedCount.increment();
+            group.get(failedIndex[0]).future.completeExceptionally(failure[0]);
+            start += failedIndex[0] + 1;
+        }
+    }
+
+    private void commitIndividually(List<Task<?>> group, RuntimeException cause) {
+        if (group.size() == 1) {
+            failedCount.increment();
+            group.get(0).future.completeExceptionally(cause);
+            return;
+        }
+        log.warn("写入管道批量提交失败，改为逐个提交，写操作数：{}，原因：{}", group.size(), cause.getMessage());
+        retriedBatchCount.increment();
+        for (Task<?> task : group) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> task.run());
+                batchCount.increment();
+                committedCount.increment();
+                task.complete();
+            } catch (RuntimeException e) {
+                failedCount.increment();
+                task.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private <T> T awaitStarted(Task<T> task) {
+        try {
+            return task.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException("等待写入结果超时，写入结果未知");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("等待写入结果时被中断");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new BusinessException("写入失败", cause);
+    }
+}
@@ -1,15 +1,23 @@
 package org.Zewang.myBlog.util;
 
 
-import io.jsonwebtoken.Claims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import javax.crypto.SecretKey;
+import org.Zewang.myBlog.common.security.TokenClaims;
+import org.Zewang.myBlog.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -29,6 +37,11 @@ import org.springframework.stereotype.Component;
 @Component
 public class JwtUtil {
 
+    // 签名声明：用户ID、角色、令牌版本，登录时写入，认证时无需再查询用户
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     // @Value注解用于从配置文件中读取属性值
     @Value("${jwt.secret:mySecretKey}") // mySecretKey 为默认值，如果配置文件中没有指定密钥，则使用这个默认密钥
     private String secret; // 密钥
@@ -36,47 +49,106 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400}") // 86400 seconds = 24 hours 默认值
     private Long expiration; // 过期时间
 
+    @Value("${jwt.verified-cache-size:10000}") // 已验证令牌缓存的容量上限
+    private int verifiedCacheSize;
+
+    // 密钥和解析器只在启动时创建一次，JwtParser 是线程安全的，可以在请求间共享
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // 已验证过签名的令牌 -> 不可变的声明；每个条目在令牌过期时失效，同一令牌的后续请求只需一次哈希查找
+    private Cache<String, TokenClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes()); // 创建一个密钥对象，使用指定的密钥字符串创建一个HMAC-SHA256密钥
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String token, TokenClaims claims, long currentTime) {
+                        long remainingMillis = claims.expiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, TokenClaims claims, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, TokenClaims claims, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     // 获取密钥
     public SecretKey getSingingKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes()); // 创建一个密钥对象，使用指定的密钥字符串创建一个HMAC-SHA256密钥
+        return signingKey;
+    }
+
+    /**
+     * 验证令牌并返回其中的声明；已验证过的令牌直接从缓存返回，不再重复验证签名
+     * 缓存的是复制出的不可变记录，而不是解析器返回的可变 Claims
+     * @param token JWT令牌
+     * @return 令牌声明
+     * @throws io.jsonwebtoken.JwtException 令牌无效或已过期
+     */
+    public TokenClaims parseToken(String token) {
+        TokenClaims claims = verifiedTokens.getIfPresent(token);
+        if (claims == null) {
+            // 验证签名和过期时间
+            claims = TokenClaims.of(parser.parseClaimsJws(token).getBody(),
+                CLAIM_USER_ID, CLAIM_ROLE, CLAIM_TOKEN_VERSION);
+            if (claims.expiresAt() != null) { // 没有过期时间的令牌不缓存
+                verifiedTokens.put(token, claims);
+            }
+        } else if (claims.isExpired()) {
+            // 缓存条目到期前的极短窗口内仍可能读到已过期的令牌
+            verifiedTokens.invalidate(token);
+            throw new ExpiredJwtException(null, null, "JWT expired at " + claims.expiresAt());
+        }
+        return claims;
     }
 
     // 获取用户名
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject); // 从令牌中获取用户名
+        return extractClaim(token, TokenClaims::subject); // 从令牌中获取用户名
     }
 
     // 获取过期时间
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration); // 从令牌中获取过期时间
+        return extractClaim(token, claims -> Date.from(claims.expiresAt())); // 从令牌中获取过期时间
     }
 
     // 获取Claim
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) { // Function<Claims, T> claimsResolver 是一个函数接口，用于处理Claims对象； 参数为：Claims对象，返回值类型为T
-        final Claims claims = extractAllClaims(token); // 从令牌中获取所有信息
+    public <T> T extractClaim(String token, Function<TokenClaims, T> claimsResolver) { // Function<TokenClaims, T> claimsResolver 是一个函数接口，用于处理声明； 参数为：TokenClaims对象，返回值类型为T
+        final TokenClaims claims = parseToken(token); // 从令牌中获取所有信息
         return claimsResolver.apply(claims); //  返回 用传入的函数处理声明数据 的结果
     }
 
-    // 获取所有Claims
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder() // 创建解析器
-                .setSigningKey(getSingingKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    // 检查令牌是否过期
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date()); // 判断令牌是否过期
-    }
-
     // 生成令牌
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>(); // 创建Claims对象
         return createToken(claims, userDetails.getUsername()); // 生成令牌
     }
 
+    // 生成携带用户ID、角色和令牌版本的令牌
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        return createToken(claims, user.getUsername());
+    }
+
     // 创建令牌
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
@@ -84,13 +156,17 @@ public class JwtUtil {
                 .setSubject(subject) // 用户名
                 .setIssuedAt(new Date(System.currentTimeMillis())) // 令牌生成时间
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000)) // 令牌过期时间； *1000：转换为毫秒
-                .signWith(getSingingKey()) // 使用密钥对签名
+                .signWith(signingKey) // 使用密钥对签名
                 .compact(); // 创建令牌并返回
     }
 
     // 验证令牌
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseToken(token), userDetails); // parseToken 已检查签名和过期时间
+    }
+
+    // 验证已解析的令牌是否属于该用户
+    public Boolean validateToken(TokenClaims claims, UserDetails userDetails) {
+        return claims.subject() != null && claims.subject().equals(userDetails.getUsername());
     }
 }
@@ -0,0 +1,53 @@
+package org.Zewang.myBlog.common.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("令牌桶测试")
+class TokenBucketTest {
+
+    private static final long NANOS_PER_TOKEN = 100;
+
+    @Test
+    @DisplayName("满桶允许突发到容量，之后拒绝并返回需等待的时间")
+    void tryConsume_ShouldAllowBurstUpToCapacity() {
+        // 准备
+        TokenBucket bucket = new TokenBucket(10, NANOS_PER_TOKEN, 0);
+
+        // 执行 & 验证
+        assertEquals(0, bucket.tryConsume(6, 0));
+        assertEquals(0, bucket.tryConsume(4, 0));
+        assertEquals(NANOS_PER_TOKEN, bucket.tryConsume(1, 0));
+    }
+
+    @Test
+    @DisplayName("令牌按时间补充，补满后不再累积")
+    void tryConsume_ShouldRefillOverTimeUpToCapacity() {
+        // 准备
+        TokenBucket bucket = new TokenBucket(10, NANOS_PER_TOKEN, 0);
+        bucket.tryConsume(10, 0);
+
+        // 执行 & 验证：过 3 个令牌的时间只能再取 3 个
+        assertEquals(0, bucket.tryConsume(3, 3 * NANOS_PER_TOKEN));
+        assertTrue(bucket.tryConsume(1, 3 * NANOS_PER_TOKEN) > 0);
+
+        // 闲置很久后仍只能取到容量个
+        long later = 1_000 * NANOS_PER_TOKEN;
+        assertEquals(0, bucket.tryConsume(10, later));
+        assertTrue(bucket.tryConsume(1, later) > 0);
+    }
+
+    @Test
+    @DisplayName("令牌不足时不扣减，小请求仍可通过")
+    void tryConsume_WhenRejected_ShouldNotConsume() {
+        // 准备
+        TokenBucket bucket = new TokenBucket(10, NANOS_PER_TOKEN, 0);
+        bucket.tryConsume(5, 0);
+
+        // 执行 & 验证
+        assertTrue(bucket.tryConsume(8, 0) > 0);
+        assertEquals(0, bucket.tryConsume(5, 0));
+    }
+}
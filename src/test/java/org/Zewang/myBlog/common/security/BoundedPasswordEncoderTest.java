@@ -0,0 +1,108 @@
+package org.Zewang.myBlog.common.security;
+
+import org.Zewang.myBlog.common.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("有界密码编码器测试")
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    // 第一次调用阻塞到 release 计数归零，用于占满哈希线程
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+    };
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    @DisplayName("在哈希线程中计算并统计耗时")
+    void encodeAndMatches_ShouldDelegateAndRecordStats() {
+        // 准备
+        encoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, 5000);
+        release.countDown();
+
+        // 执行
+        String hash = encoder.encode("secret");
+        boolean matched = encoder.matches("secret", hash);
+
+        // 验证
+        assertEquals("hash:secret", hash);
+        assertTrue(matched);
+        Map<String, Object> stats = encoder.stats();
+        assertEquals(2L, stats.get("completedCount"));
+        assertEquals(0L, stats.get("rejectedCount"));
+        assertEquals(0, stats.get("queueDepth"));
+    }
+
+    @Test
+    @DisplayName("线程和队列都已占满时立即拒绝")
+    void encode_WhenQueueFull_ShouldRejectImmediately() throws Exception {
+        // 准备：一个请求占用哈希线程，一个请求占满队列
+        encoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, 5000);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.stats().get("queueDepth").equals(0)) {
+            Thread.onSpinWait();
+        }
+
+        // 执行 & 验证
+        assertThrows(TooManyRequestsException.class, () -> encoder.encode("c"));
+        assertEquals(1L, encoder.stats().get("rejectedCount"));
+
+        release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("排队超时后放弃并拒绝")
+    void encode_WhenWaitTimesOut_ShouldReject() throws Exception {
+        // 准备
+        encoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, 100);
+        CompletableFuture.runAsync(() -> {
+            try {
+                encoder.encode("a");
+            } catch (TooManyRequestsException ignored) {
+                // 阻塞中的请求同样会超时
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // 执行 & 验证
+        assertThrows(TooManyRequestsException.class, () -> encoder.encode("b"));
+        assertTrue((Long) encoder.stats().get("timeoutCount") >= 1L);
+    }
+}
@@ -0,0 +1,134 @@
+package org.Zewang.myBlog.config;
+
+import org.Zewang.myBlog.common.security.AuthenticatedUser;
+import org.Zewang.myBlog.common.security.TokenClaims;
+import org.Zewang.myBlog.service.user.UserService;
+import org.Zewang.myBlog.service.user.token.TokenVersionRegistry;
+import org.Zewang.myBlog.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JWT 认证过滤器测试")
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "token";
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private ObjectProvider<UserService> userServiceProvider;
+
+    @Mock
+    private UserService userService;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(userServiceProvider);
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "tokenVersionRegistry", tokenVersionRegistry);
+        ReflectionTestUtils.setField(filter, "statelessClaims", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static TokenClaims claims(String userId, Integer version) {
+        return new TokenClaims("alice", userId, "USER", version, Instant.now().plusSeconds(60));
+    }
+
+    private Authentication send() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/me");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest(), "无论是否认证都应继续执行过滤器链");
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    @DisplayName("令牌版本为当前版本 - 设置认证信息")
+    void doFilter_WhenVersionCurrent_ShouldAuthenticate() throws Exception {
+        // 准备
+        when(jwtUtil.parseToken(TOKEN)).thenReturn(claims("u1", 2));
+        when(tokenVersionRegistry.isCurrent("u1", 2)).thenReturn(true);
+
+        // 执行
+        Authentication authentication = send();
+
+        // 验证
+        assertNotNull(authentication);
+        assertEquals(new AuthenticatedUser("u1", "alice", "USER"), authentication.getPrincipal());
+    }
+
+    @Test
+    @DisplayName("令牌版本已失效 - 不设置认证信息，由入口点返回 401")
+    void doFilter_WhenVersionStale_ShouldNotAuthenticate() throws Exception {
+        // 准备：改密码或退出登录后版本已增加
+        when(jwtUtil.parseToken(TOKEN)).thenReturn(claims("u1", 1));
+        when(tokenVersionRegistry.isCurrent("u1", 1)).thenReturn(false);
+
+        // 执行
+        Authentication authentication = send();
+
+        // 验证
+        assertNull(authentication);
+        verifyNoInteractions(userServiceProvider);
+    }
+
+    @Test
+    @DisplayName("用户已删除 - 版本表中没有该用户，不设置认证信息")
+    void doFilter_WhenUserDeleted_ShouldNotAuthenticate() throws Exception {
+        // 准备：删除用户后版本表中不再有该用户
+        when(jwtUtil.parseToken(TOKEN)).thenReturn(claims("u1", 0));
+        when(tokenVersionRegistry.isCurrent("u1", 0)).thenReturn(false);
+
+        // 执行
+        Authentication authentication = send();
+
+        // 验证
+        assertNull(authentication);
+    }
+
+    @Test
+    @DisplayName("没有用户ID的旧令牌且用户已删除 - 不设置认证信息")
+    void doFilter_WhenLegacyTokenUserDeleted_ShouldNotAuthenticate() throws Exception {
+        // 准备：旧令牌只能按用户名加载用户
+        when(jwtUtil.parseToken(TOKEN)).thenReturn(claims(null, null));
+        when(userServiceProvider.getObject()).thenReturn(userService);
+        when(userService.loadAuthenticatedUser("alice")).thenThrow(new UsernameNotFoundException("alice"));
+
+        // 执行
+        Authentication authentication = send();
+
+        // 验证
+        assertNull(authentication);
+        verifyNoInteractions(tokenVersionRegistry);
+    }
+}
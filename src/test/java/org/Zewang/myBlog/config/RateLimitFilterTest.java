@@ -0,0 +1,76 @@
+package org.Zewang.myBlog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.Zewang.myBlog.common.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("限流过滤器测试")
+class RateLimitFilterTest {
+
+    // 容量 10，每秒只补充 1 个令牌，测试期间基本不会补充
+    private final RateLimitFilter filter = new RateLimitFilter(true, 10, 1, 100,
+        List.of("POST /api/auth/login=4", "/api/search/**=2"), new ObjectMapper());
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    @DisplayName("按路由权重扣除令牌，超出后返回 429")
+    void doFilter_ShouldChargeRouteCost() throws Exception {
+        // 执行：登录每次扣 4 个，第三次时只剩 2 个
+        int first = send("POST", "/api/auth/login", "1.1.1.1").getStatus();
+        int second = send("POST", "/api/auth/login", "1.1.1.1").getStatus();
+        MockHttpServletResponse third = send("POST", "/api/auth/login", "1.1.1.1");
+
+        // 验证
+        assertEquals(200, first);
+        assertEquals(200, second);
+        assertEquals(429, third.getStatus());
+        assertNotNull(third.getHeader("Retry-After"));
+        assertTrue(third.getContentAsString().contains("429"));
+        // 剩余的 2 个令牌仍可用于权重更小的请求
+        assertEquals(200, send("GET", "/api/search/articles", "1.1.1.1").getStatus());
+        assertEquals(429, send("GET", "/api/article/list", "1.1.1.1").getStatus());
+        assertEquals(2L, filter.stats().get("rejectedCount"));
+    }
+
+    @Test
+    @DisplayName("不同IP、已登录用户各用各的令牌桶")
+    void doFilter_ShouldKeyByIpOrUser() throws Exception {
+        // 准备：耗尽该IP的令牌
+        for (int i = 0; i < 5; i++) {
+            send("GET", "/api/search/articles", "2.2.2.2");
+        }
+        assertEquals(429, send("GET", "/api/article/list", "2.2.2.2").getStatus());
+
+        // 执行 & 验证：其他IP不受影响
+        assertEquals(200, send("GET", "/api/article/list", "3.3.3.3").getStatus());
+
+        // 已登录用户按用户ID计数
+        AuthenticatedUser user = new AuthenticatedUser("u1", "alice", "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
+        assertEquals(200, send("GET", "/api/article/list", "2.2.2.2").getStatus());
+    }
+}
@@ -0,0 +1,83 @@
+package org.Zewang.myBlog.config.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("限制并发的数据源测试")
+class ConcurrencyLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitingDataSource(target, 1, 50);
+    }
+
+    @Test
+    @DisplayName("许可用尽时等待超时，连接关闭后归还许可")
+    void getConnection_ShouldLimitConcurrency() throws Exception {
+        // 准备
+        when(target.getConnection()).thenReturn(connection);
+
+        // 执行
+        Connection first = dataSource.getConnection();
+
+        // 验证
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1L, dataSource.stats().get("timeoutCount"));
+
+        first.close();
+        first.close(); // 重复关闭只归还一次
+        verify(connection, times(2)).close();
+        Connection second = dataSource.getConnection();
+        assertEquals(1, dataSource.stats().get("inUse"));
+        second.close();
+        assertEquals(0, dataSource.stats().get("inUse"));
+    }
+
+    @Test
+    @DisplayName("获取连接失败时归还许可")
+    void getConnection_WhenTargetFails_ShouldReleasePermit() throws Exception {
+        // 准备
+        when(target.getConnection()).thenThrow(new SQLException("boom")).thenReturn(connection);
+
+        // 执行 & 验证
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("其他方法直接转发给实际连接")
+    void connection_ShouldDelegateOtherMethods() throws Exception {
+        // 准备
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        // 执行
+        Connection limited = dataSource.getConnection();
+
+        // 验证
+        assertTrue(limited.getAutoCommit());
+        assertEquals(limited, limited);
+        assertNotEquals(limited, connection);
+    }
+}
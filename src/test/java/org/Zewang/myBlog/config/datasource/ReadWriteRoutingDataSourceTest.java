@@ -0,0 +1,117 @@
+package org.Zewang.myBlog.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("读写分离数据源测试")
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private HikariDataSource writer;
+
+    @Mock
+    private HikariDataSource reader;
+
+    @Mock
+    private Connection writeConnection;
+
+    @Mock
+    private Connection readConnection;
+
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReadWriteRoutingDataSource(writer, reader, 1, 2, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @Test
+    @DisplayName("事务外的读取使用只读连接池，不占用写连接")
+    void getConnection_OutsideTransaction_ShouldUseReader() throws Exception {
+        // 准备
+        when(reader.getConnection()).thenReturn(readConnection);
+        dataSource.afterSingletonsInstantiated();
+
+        // 执行
+        Connection connection = dataSource.getConnection();
+
+        // 验证
+        assertNotNull(connection);
+        verify(reader).getConnection();
+        verify(writer, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("容器初始化完成前，事务外的访问使用写连接池")
+    void getConnection_BeforeStarted_ShouldUseWriter() throws Exception {
+        // 准备
+        when(writer.getConnection()).thenReturn(writeConnection);
+
+        // 执行
+        dataSource.getConnection();
+
+        // 验证
+        verify(writer).getConnection();
+        verify(reader, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("只读事务使用只读连接池，读写事务使用写连接池")
+    void getConnection_InTransaction_ShouldRouteByReadOnly() throws Exception {
+        // 准备
+        when(reader.getConnection()).thenReturn(readConnection);
+        when(writer.getConnection()).thenReturn(writeConnection);
+        dataSource.afterSingletonsInstantiated();
+
+        // 执行 & 验证
+        beginTransaction(true);
+        dataSource.getConnection();
+        verify(reader).getConnection();
+
+        beginTransaction(false);
+        dataSource.getConnection();
+        verify(writer).getConnection();
+    }
+
+    @Test
+    @DisplayName("写连接许可用尽时只读访问不受影响")
+    void getConnection_WhenWriterBusy_ShouldNotBlockReads() throws Exception {
+        // 准备
+        when(reader.getConnection()).thenReturn(readConnection);
+        when(writer.getConnection()).thenReturn(writeConnection);
+        dataSource.afterSingletonsInstantiated();
+        beginTransaction(false);
+        Connection held = dataSource.getConnection();
+
+        // 执行 & 验证
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        TransactionSynchronizationManager.clear();
+        assertNotNull(dataSource.getConnection());
+        verify(reader).getConnection();
+        held.close();
+    }
+}
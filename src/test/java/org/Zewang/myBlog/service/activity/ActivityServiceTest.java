@@ -0,0 +1,76 @@
+package org.Zewang.myBlog.service.activity;
+
+import org.Zewang.myBlog.common.pagination.CursorPage;
+import org.Zewang.myBlog.common.pagination.KeysetCursor;
+import org.Zewang.myBlog.dto.ActivityDTO;
+import org.Zewang.myBlog.repository.ActivityRepository;
+import org.Zewang.myBlog.repository.ActivityRepository.Source;
+import org.Zewang.myBlog.service.activity.impl.ActivityServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("管理后台动态服务测试")
+class ActivityServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    @InjectMocks
+    private ActivityServiceImpl activityService;
+
+    private static ActivityDTO activity(String type, String id, int minute) {
+        return new ActivityDTO(type, id, "user", null, null, BASE.plusMinutes(minute));
+    }
+
+    @Test
+    @DisplayName("多类动态按时间倒序归并，并返回下一页游标")
+    void getRecentActivities_ShouldMergeByTime() {
+        // 准备
+        when(activityRepository.findLatest(any(), isNull(), isNull(), eq(4))).thenReturn(List.of());
+        when(activityRepository.findLatest(eq(Source.COMMENT), isNull(), isNull(), eq(4)))
+            .thenReturn(List.of(activity("comment", "c2", 5), activity("comment", "c1", 1)));
+        when(activityRepository.findLatest(eq(Source.LIKE), isNull(), isNull(), eq(4)))
+            .thenReturn(List.of(activity("like", "l2", 4), activity("like", "l1", 3)));
+        when(activityRepository.findLatest(eq(Source.REGISTER), isNull(), isNull(), eq(4)))
+            .thenReturn(List.of(activity("register", "u1", 2)));
+
+        // 执行
+        CursorPage<ActivityDTO> page = activityService.getRecentActivities(null, 3);
+
+        // 验证
+        assertEquals(List.of("c2", "l2", "l1"), page.items().stream().map(ActivityDTO::id).toList());
+        assertTrue(page.hasMore());
+        assertEquals(new KeysetCursor(BASE.plusMinutes(3), "like:l1"), KeysetCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("按游标查询时，同一时刻的动态按类型决定是否排在游标之后")
+    void getRecentActivities_WithCursor_ShouldBoundTiesByType() {
+        // 准备
+        String cursor = new KeysetCursor(BASE, "like:l1").encode();
+        when(activityRepository.findLatest(any(), eq(BASE), anyString(), eq(11))).thenReturn(List.of());
+
+        // 执行
+        activityService.getRecentActivities(cursor, 10);
+
+        // 验证
+        verify(activityRepository).findLatest(Source.COMMENT, BASE, String.valueOf(Character.MAX_VALUE), 11);
+        verify(activityRepository).findLatest(Source.LIKE, BASE, "l1", 11);
+        verify(activityRepository).findLatest(Source.PUBLISH, BASE, "", 11);
+        verify(activityRepository).findLatest(Source.REGISTER, BASE, "", 11);
+    }
+}
@@ -2,11 +2,19 @@ package org.Zewang.myBlog.service.article;
 
 import org.Zewang.myBlog.common.exception.BusinessException;
 import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.dto.ArticleDetailDTO;
+import org.Zewang.myBlog.dto.ArticleSummaryDTO;
 import org.Zewang.myBlog.dto.CreateArticleDTO;
 import org.Zewang.myBlog.model.Article;
 import org.Zewang.myBlog.model.enums.ArticleStatus;
 import org.Zewang.myBlog.service.article.impl.ArticleServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
+import org.Zewang.myBlog.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.data.domain.Sort;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,11 +26,15 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.Zewang.myBlog.model.Category;
 import org.Zewang.myBlog.repository.CategoryRepository;
+import org.Zewang.myBlog.service.search.index.ArticleSearchIndex;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +47,12 @@ class ArticleServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ArticleSearchIndex articleSearchIndex;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private ArticleServiceImpl articleService;
 
@@ -66,17 +84,20 @@ class ArticleServiceTest {
     @DisplayName("获取所有文章 - 成功")
     void getAllArticles_ShouldReturnArticleList() {
         // 准备
-        List<Article> expectedArticles = Arrays.asList(testArticle);
-        when(articleRepository.findAll()).thenReturn(expectedArticles);
+        ArticleSummaryDTO summary = new ArticleSummaryDTO("1", "测试标题", "测试内容", "测试作者",
+            testArticle.getCreateTime(), testArticle.getUpdateTime(), ArticleStatus.DRAFT, 0, 0, 0, List.of());
+        List<ArticleSummaryDTO> expectedArticles = Arrays.asList(summary);
+        when(articleRepository.findSummaries(null, Sort.unsorted(), 0)).thenReturn(expectedArticles);
 
         // 执行
-        List<Article> result = articleService.getAllArticles();
+        List<ArticleSummaryDTO> result = articleService.getAllArticles();
 
         // 验证
         assertNotNull(result, "返回的文章列表不应为null");
         assertEquals(1, result.size(), "返回的文章数量不正确");
-        assertEquals("测试标题", result.get(0).getTitle(), "文章标题不匹配");
-        verify(articleRepository, times(1)).findAll();
+        assertEquals("测试标题", result.get(0).title(), "文章标题不匹配");
+        verify(articleRepository, times(1)).findSummaries(null, Sort.unsorted(), 0);
+        verify(articleRepository, never()).findAll();
     }
 
     @Test
@@ -86,11 +107,11 @@ class ArticleServiceTest {
         when(articleRepository.findById("1")).thenReturn(Optional.of(testArticle));
 
         // 执行
-        Optional<Article> result = articleService.getById("1");
+        Optional<ArticleDetailDTO> result = articleService.getById("1");
 
         // 验证
         assertTrue(result.isPresent(), "应该返回非空的Optional");
-        assertEquals("测试标题", result.get().getTitle(), "文章标题不匹配");
+        assertEquals("测试标题", result.get().title(), "文章标题不匹配");
         verify(articleRepository, times(1)).findById("1");
     }
 
@@ -101,13 +122,52 @@ class ArticleServiceTest {
         when(articleRepository.findById("999")).thenReturn(Optional.empty());
 
         // 执行
-        Optional<Article> result = articleService.getById("999");
+        Optional<ArticleDetailDTO> result = articleService.getById("999");
 
         // 验证
         assertTrue(result.isEmpty(), "当文章不存在时应返回空的Optional");
         verify(articleRepository, times(1)).findById("999");
     }
 
+    @Test
+    @DisplayName("根据ID获取文章 - 返回的快照不受实体后续修改影响")
+    void getById_ShouldReturnSnapshotDetachedFromEntity() {
+        // 准备
+        when(articleRepository.findById("1")).thenReturn(Optional.of(testArticle));
+
+        // 执行
+        ArticleDetailDTO detail = articleService.getById("1").orElseThrow();
+        testArticle.setTitle("修改后的标题");
+
+        // 验证
+        assertEquals("测试标题", detail.title(), "缓存的详情不应随实体变化");
+    }
+
+    @Test
+    @DisplayName("发布文章 - 事务提交后才清除缓存")
+    void publishArticle_InTransaction_ShouldEvictCacheAfterCommit() {
+        // 准备
+        Cache articles = mock(Cache.class);
+        Cache lists = mock(Cache.class);
+        when(cacheManager.getCache(CacheConfig.ARTICLES)).thenReturn(articles);
+        when(cacheManager.getCache(CacheConfig.ARTICLE_LISTS)).thenReturn(lists);
+        when(articleRepository.findById("1")).thenReturn(Optional.of(testArticle));
+        when(articleRepository.save(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // 执行
+            articleService.publishArticle("1");
+
+            // 验证
+            verify(articles, never()).evict(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(articles, times(1)).evict("1");
+            verify(lists, times(1)).clear();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     @DisplayName("创建文章 - 成功")
     void createArticle_WithValidData_ShouldCreateArticle() {
@@ -209,6 +269,58 @@ class ArticleServiceTest {
         verify(articleRepository, times(1)).save(any(Article.class));
     }
 
+    @Test
+    @DisplayName("发布文章 - 分类文章数加一")
+    void publishArticle_WhenDraft_ShouldIncreaseCategoryCount() {
+        // 准备
+        Category category = new Category();
+        category.setId("1");
+        testArticle.setCategories(List.of(category));
+        when(articleRepository.findById("1")).thenReturn(Optional.of(testArticle));
+        when(articleRepository.save(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // 执行
+        Article result = articleService.publishArticle("1");
+
+        // 验证
+        assertEquals(ArticleStatus.PUBLISHED, result.getStatus(), "文章状态应为已发布");
+        verify(categoryRepository, times(1)).adjustArticleCount(Set.of("1"), 1);
+        verify(categoryRepository, never()).adjustArticleCount(anyCollection(), eq(-1));
+    }
+
+    @Test
+    @DisplayName("发布文章 - 设置发布时间，再次发布时保留原发布时间")
+    void publishArticle_ShouldSetPublishTimeOnce() {
+        // 准备：草稿创建于一天前
+        testArticle.setCreateTime(LocalDateTime.now().minusDays(1));
+        when(articleRepository.findById("1")).thenReturn(Optional.of(testArticle));
+        when(articleRepository.save(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // 执行
+        LocalDateTime published = articleService.publishArticle("1").getPublishTime();
+        LocalDateTime republished = articleService.publishArticle("1").getPublishTime();
+
+        // 验证
+        assertNotNull(published);
+        assertTrue(published.isAfter(testArticle.getCreateTime()), "发布时间应为发布时刻而不是创建时间");
+        assertEquals(published, republished);
+    }
+
+    @Test
+    @DisplayName("删除已发布文章 - 分类文章数减一")
+    void deleteArticle_WhenPublished_ShouldDecreaseCategoryCount() {
+        // 准备
+        when(articleRepository.existsById("1")).thenReturn(true);
+        when(articleRepository.findCategoryIdsByIdAndStatus("1", ArticleStatus.PUBLISHED)).thenReturn(List.of("1", "2"));
+
+        // 执行
+        articleService.deleteArticle("1");
+
+        // 验证
+        verify(articleRepository, times(1)).deleteById("1");
+        verify(categoryRepository, times(1)).adjustArticleCount(Set.of("1", "2"), -1);
+    }
+
     @Test
     @DisplayName("删除文章 - 成功")
     void deleteArticle_WhenArticleExists_ShouldDeleteArticle() {
@@ -0,0 +1,81 @@
+package org.Zewang.myBlog.service.article;
+
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.service.article.counter.ViewCountBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("阅读数写缓冲测试")
+class ViewCountBufferTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ViewCountBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        // 事务模板直接执行回调
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        buffer = new ViewCountBuffer(articleRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("合并阅读数 - 每篇文章只写回一次")
+    void flush_ShouldMergeViewsPerArticle() {
+        // 准备
+        buffer.increment("1");
+        buffer.increment("1");
+        buffer.increment("2");
+
+        // 执行
+        int flushed = buffer.flush();
+
+        // 验证
+        assertEquals(2, flushed);
+        verify(articleRepository).addViewCount("1", 2L);
+        verify(articleRepository).addViewCount("2", 1L);
+        assertEquals(0, buffer.flush(), "写回后缓冲区应为空");
+    }
+
+    @Test
+    @DisplayName("写回失败 - 阅读数保留到下次写回")
+    void flush_WhenDatabaseFails_ShouldKeepViews() {
+        // 准备
+        buffer.increment("1");
+        when(articleRepository.addViewCount("1", 1L))
+            .thenThrow(new QueryTimeoutException("database is locked"))
+            .thenReturn(1);
+
+        // 执行
+        int failed = buffer.flush();
+        buffer.increment("1");
+        int flushed = buffer.flush();
+
+        // 验证
+        assertEquals(0, failed);
+        assertEquals(1, flushed);
+        verify(articleRepository).addViewCount("1", 2L);
+    }
+}
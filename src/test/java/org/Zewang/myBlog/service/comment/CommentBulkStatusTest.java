@@ -0,0 +1,160 @@
+package org.Zewang.myBlog.service.comment;
+
+import org.Zewang.myBlog.common.exception.ValidationException;
+import org.Zewang.myBlog.dto.BulkCommentStatusDTO;
+import org.Zewang.myBlog.dto.BulkCommentStatusResultDTO;
+import org.Zewang.myBlog.model.Comment;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.repository.CommentBulkRepository;
+import org.Zewang.myBlog.repository.CommentRepository;
+import org.Zewang.myBlog.service.comment.impl.CommentServiceImpl;
+import org.Zewang.myBlog.service.comment.thread.CommentThreadCache;
+import org.Zewang.myBlog.service.write.WritePipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("评论批量审核测试")
+class CommentBulkStatusTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private CommentThreadCache commentThreadCache;
+
+    @Mock
+    private WritePipeline writePipeline;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private CommentServiceImpl commentService;
+
+    @BeforeEach
+    void setUp() {
+        // 准备：内存 SQLite 中的两篇文章，a1 有两条正常评论和一条待审核评论，a2 有一条正常评论
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite::memory:", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE articles (id TEXT PRIMARY KEY, comment_count INTEGER)");
+        jdbcTemplate.execute("CREATE TABLE comments (id TEXT PRIMARY KEY, article_id TEXT, user_id TEXT, "
+            + "status INTEGER, update_time TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO articles VALUES ('a1', 2), ('a2', 1)");
+        jdbcTemplate.update("INSERT INTO comments (id, article_id, user_id, status) VALUES "
+            + "('c1', 'a1', 'u1', 0), ('c2', 'a1', 'u2', 0), ('c3', 'a1', 'u1', 2), ('c4', 'a2', 'u1', 0)");
+
+        commentService = new CommentServiceImpl(commentRepository, new CommentBulkRepository(jdbcTemplate),
+            articleRepository, cacheManager, commentThreadCache, writePipeline, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    private BulkCommentStatusDTO request(int status) {
+        BulkCommentStatusDTO dto = new BulkCommentStatusDTO();
+        dto.setStatus(status);
+        return dto;
+    }
+
+    private int statusOf(String id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM comments WHERE id = ?", Integer.class, id);
+    }
+
+    private int commentCountOf(String articleId) {
+        return jdbcTemplate.queryForObject("SELECT comment_count FROM articles WHERE id = ?", Integer.class, articleId);
+    }
+
+    @Test
+    @DisplayName("按ID修改 - 跳过状态未变化的评论并重算评论数")
+    void updateInBulk_ByIds_ShouldSkipUnchangedAndRecount() {
+        // 准备
+        BulkCommentStatusDTO dto = request(Comment.STATUS_DELETED);
+        dto.setIds(List.of("c1", "c4", "c4", "missing"));
+        jdbcTemplate.update("UPDATE comments SET status = ? WHERE id = 'c4'", Comment.STATUS_DELETED);
+
+        // 执行
+        BulkCommentStatusResultDTO result = commentService.updateCommentStatusInBulk(dto);
+
+        // 验证
+        assertEquals(1, result.updated(), "c4 已是目标状态，不应计入");
+        assertEquals(1, result.articles(), "只有 a1 的评论状态发生变化");
+        assertEquals(Comment.STATUS_DELETED, statusOf("c1"));
+        assertEquals(Comment.STATUS_NORMAL, statusOf("c2"));
+        assertEquals(1, commentCountOf("a1"), "a1 只剩一条正常评论");
+        assertEquals(1, commentCountOf("a2"), "未涉及的文章不重算");
+        verify(commentThreadCache).invalidate("a1");
+        verify(commentThreadCache, never()).invalidate("a2");
+    }
+
+    @Test
+    @DisplayName("按筛选条件修改 - 只修改匹配的评论并重算评论数")
+    void updateInBulk_ByFilter_ShouldUpdateMatchingAndRecount() {
+        // 准备
+        BulkCommentStatusDTO dto = request(Comment.STATUS_NORMAL);
+        dto.setFilterStatus(Comment.STATUS_PENDING);
+        dto.setUserId(" u1 ");
+
+        // 执行
+        BulkCommentStatusResultDTO result = commentService.updateCommentStatusInBulk(dto);
+
+        // 验证
+        assertEquals(1, result.updated(), "只有 c3 待审核且属于 u1");
+        assertEquals(Comment.STATUS_NORMAL, statusOf("c3"));
+        assertEquals(3, commentCountOf("a1"));
+        assertNotNull(jdbcTemplate.queryForObject(
+            "SELECT update_time FROM comments WHERE id = 'c3'", Object.class), "应写入更新时间");
+    }
+
+    @Test
+    @DisplayName("没有状态会变化的评论 - 不修改也不重算")
+    void updateInBulk_WhenAllAlreadyInStatus_ShouldDoNothing() {
+        // 准备
+        BulkCommentStatusDTO dto = request(Comment.STATUS_NORMAL);
+        dto.setArticleId("a2");
+        jdbcTemplate.update("UPDATE articles SET comment_count = 99 WHERE id = 'a2'");
+
+        // 执行
+        BulkCommentStatusResultDTO result = commentService.updateCommentStatusInBulk(dto);
+
+        // 验证
+        assertEquals(0, result.updated());
+        assertEquals(0, result.articles());
+        assertEquals(99, commentCountOf("a2"), "没有修改时不应重算评论数");
+        verifyNoInteractions(commentThreadCache);
+    }
+
+    @Test
+    @DisplayName("评论ID列表和筛选条件必须且只能指定一个")
+    void updateInBulk_WithBothOrNeither_ShouldThrow() {
+        // 准备
+        BulkCommentStatusDTO neither = request(Comment.STATUS_DELETED);
+        BulkCommentStatusDTO both = request(Comment.STATUS_DELETED);
+        both.setIds(List.of("c1"));
+        both.setArticleId("a1");
+
+        // 执行 & 验证
+        assertThrows(ValidationException.class, () -> commentService.updateCommentStatusInBulk(neither));
+        assertThrows(ValidationException.class, () -> commentService.updateCommentStatusInBulk(both));
+        assertEquals(Comment.STATUS_NORMAL, statusOf("c1"), "校验失败时不应修改数据");
+    }
+}
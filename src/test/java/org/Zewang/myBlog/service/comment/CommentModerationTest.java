@@ -0,0 +1,91 @@
+package org.Zewang.myBlog.service.comment;
+
+import org.Zewang.myBlog.dto.CreateCommentDTO;
+import org.Zewang.myBlog.model.Comment;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.repository.CommentRepository;
+import org.Zewang.myBlog.service.comment.impl.CommentServiceImpl;
+import org.Zewang.myBlog.service.comment.thread.CommentThreadCache;
+import org.Zewang.myBlog.service.write.WritePipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("评论审核开关测试")
+class CommentModerationTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private CommentThreadCache commentThreadCache;
+
+    @Mock
+    private WritePipeline writePipeline;
+
+    private CommentServiceImpl commentService;
+    private CreateCommentDTO dto;
+
+    @BeforeEach
+    void setUp() {
+        // 写入管道直接执行写操作
+        when(writePipeline.execute(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        commentService = new CommentServiceImpl(commentRepository, null, articleRepository, cacheManager,
+            commentThreadCache, writePipeline, null, null);
+
+        dto = new CreateCommentDTO();
+        dto.setArticleId("a1");
+        dto.setContent("评论内容");
+    }
+
+    @Test
+    @DisplayName("开启审核 - 新评论为待审核，不计入评论数也不失效评论树缓存")
+    void createComment_WhenModerationEnabled_ShouldBePending() {
+        // 准备
+        ReflectionTestUtils.setField(commentService, "moderationEnabled", true);
+        when(articleRepository.existsById("a1")).thenReturn(true);
+
+        // 执行
+        Comment comment = commentService.createComment(dto, "u1", "alice");
+
+        // 验证
+        assertEquals(Comment.STATUS_PENDING, comment.getStatus());
+        verify(articleRepository, never()).addCommentCount(anyString(), anyInt());
+        verify(commentThreadCache, never()).invalidate(anyString());
+    }
+
+    @Test
+    @DisplayName("关闭审核 - 新评论直接展示并计入评论数")
+    void createComment_WhenModerationDisabled_ShouldBeNormal() {
+        // 准备
+        when(articleRepository.addCommentCount("a1", 1)).thenReturn(1);
+
+        // 执行
+        Comment comment = commentService.createComment(dto, "u1", "alice");
+
+        // 验证
+        assertEquals(Comment.STATUS_NORMAL, comment.getStatus());
+        verify(commentThreadCache).invalidate("a1");
+    }
+}
@@ -0,0 +1,121 @@
+package org.Zewang.myBlog.service.comment;
+
+import org.Zewang.myBlog.dto.CommentNodeDTO;
+import org.Zewang.myBlog.model.Comment;
+import org.Zewang.myBlog.service.comment.thread.CommentThreadBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("评论树构建测试")
+class CommentThreadBuilderTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private static Comment comment(String id, String parentId, int minute, int status) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setArticleId("a1");
+        comment.setUsername("user-" + id);
+        comment.setContent("内容-" + id);
+        comment.setParentId(parentId);
+        comment.setStatus(status);
+        comment.setCreateTime(BASE.plusMinutes(minute));
+        return comment;
+    }
+
+    @Test
+    @DisplayName("顶级评论按时间倒序，回复按时间正序，输入无序时也能正确排序")
+    void build_ShouldOrderRootsDescAndRepliesAsc() {
+        // 准备
+        List<Comment> comments = List.of(
+            comment("r2", "r1", 3, 0),
+            comment("c2", null, 2, 0),
+            comment("c1", null, 0, 0),
+            comment("r1", "c1", 1, 0),
+            comment("r3", "c1", 4, 0));
+
+        // 执行
+        List<CommentNodeDTO> roots = CommentThreadBuilder.build(comments, 8, 50);
+
+        // 验证
+        assertEquals(List.of("c2", "c1"), roots.stream().map(CommentNodeDTO::id).toList());
+        CommentNodeDTO c1 = roots.get(1);
+        assertEquals(List.of("r1", "r3"), c1.replies().stream().map(CommentNodeDTO::id).toList());
+        assertEquals("r2", c1.replies().get(0).replies().get(0).id(), "应支持多层嵌套");
+        assertThrows(UnsupportedOperationException.class, () -> c1.replies().add(null), "结果应为只读");
+    }
+
+    @Test
+    @DisplayName("已删除的评论有可见回复时保留占位节点，否则不返回")
+    void build_ShouldKeepPlaceholderForDeletedParent() {
+        // 准备
+        List<Comment> comments = List.of(
+            comment("c1", null, 0, 1),
+            comment("r1", "c1", 1, 0),
+            comment("c2", null, 2, 1),
+            comment("r2", "c2", 3, 1));
+
+        // 执行
+        List<CommentNodeDTO> roots = CommentThreadBuilder.build(comments, 8, 50);
+
+        // 验证
+        assertEquals(1, roots.size(), "没有可见回复的已删除评论不应返回");
+        CommentNodeDTO placeholder = roots.get(0);
+        assertTrue(placeholder.deleted());
+        assertNull(placeholder.content(), "占位节点不应包含原内容");
+        assertNull(placeholder.author());
+        assertEquals("r1", placeholder.replies().get(0).id());
+    }
+
+    @Test
+    @DisplayName("待审核的评论及其回复不返回，也不作为占位节点保留")
+    void build_ShouldHidePendingComments() {
+        // 准备：p1 待审核且有正常回复；c1 -> p2(待审核) -> r2(正常)；d1(已删除) -> p3(待审核)
+        List<Comment> comments = List.of(
+            comment("p1", null, 0, 2),
+            comment("r1", "p1", 1, 0),
+            comment("c1", null, 2, 0),
+            comment("p2", "c1", 3, 2),
+            comment("r2", "p2", 4, 0),
+            comment("d1", null, 5, 1),
+            comment("p3", "d1", 6, 2));
+
+        // 执行
+        List<CommentNodeDTO> roots = CommentThreadBuilder.build(comments, 8, 50);
+
+        // 验证
+        assertEquals(List.of("c1"), roots.stream().map(CommentNodeDTO::id).toList());
+        assertFalse(roots.get(0).deleted());
+        assertTrue(roots.get(0).replies().isEmpty(), "待审核回复下的正常回复也不应返回");
+        assertEquals(0, roots.get(0).replyCount());
+    }
+
+    @Test
+    @DisplayName("超出深度和单层数量上限的回复不返回，但计入 replyCount")
+    void build_ShouldCapDepthAndFanOut() {
+        // 准备
+        List<Comment> comments = new ArrayList<>();
+        comments.add(comment("c1", null, 0, 0));
+        for (int i = 1; i <= 5; i++) {
+            comments.add(comment("r" + i, "c1", i, 0));
+        }
+        comments.add(comment("rr1", "r1", 10, 0));
+
+        // 执行
+        List<CommentNodeDTO> roots = CommentThreadBuilder.build(comments, 1, 3);
+
+        // 验证
+        CommentNodeDTO c1 = roots.get(0);
+        assertEquals(5, c1.replyCount());
+        assertEquals(List.of("r1", "r2", "r3"), c1.replies().stream().map(CommentNodeDTO::id).toList());
+        CommentNodeDTO r1 = c1.replies().get(0);
+        assertEquals(1, r1.replyCount(), "超出深度的回复应计入回复数");
+        assertTrue(r1.replies().isEmpty(), "超出深度的回复不应返回");
+    }
+}
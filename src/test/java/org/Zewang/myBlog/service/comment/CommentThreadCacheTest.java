@@ -0,0 +1,89 @@
+package org.Zewang.myBlog.service.comment;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.Zewang.myBlog.config.CacheConfig;
+import org.Zewang.myBlog.service.comment.thread.CommentThreadCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("评论树缓存测试")
+class CommentThreadCacheTest {
+
+    private CommentThreadCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.COMMENT_THREADS, Caffeine.newBuilder().maximumSize(10).build());
+        cache = new CommentThreadCache(cacheManager);
+    }
+
+    private List<String> load(String value) {
+        loads.incrementAndGet();
+        return List.of(value);
+    }
+
+    @Test
+    @DisplayName("重复读取命中缓存，不同视图分别缓存")
+    void get_ShouldLoadOncePerView() {
+        // 执行
+        cache.get("a1", "tree", () -> load("v1"));
+        List<String> cached = cache.get("a1", "tree", () -> load("v2"));
+        cache.get("a1", "threads", () -> load("v3"));
+
+        // 验证
+        assertEquals(List.of("v1"), cached, "第二次读取应返回缓存的结果");
+        assertEquals(2, loads.get(), "每个视图只应构建一次");
+    }
+
+    @Test
+    @DisplayName("失效后重新构建，且不影响其他文章")
+    void invalidate_ShouldOnlyAffectGivenArticle() {
+        // 准备
+        cache.get("a1", "tree", () -> load("a1-old"));
+        cache.get("a2", "tree", () -> load("a2"));
+
+        // 执行
+        cache.invalidate("a1");
+
+        // 验证
+        assertEquals(List.of("a1-new"), cache.get("a1", "tree", () -> load("a1-new")), "失效后应重新构建");
+        assertEquals(List.of("a2"), cache.get("a2", "tree", () -> load("a2-new")), "其他文章的缓存应保留");
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("同一视图的并发请求等待第一个请求构建的结果")
+    void get_Concurrent_ShouldLoadOnce() throws Exception {
+        // 准备：第一个请求构建时阻塞，等第二个请求进入后再返回
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> cache.get("a1", "tree", () -> {
+            building.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return load("v1");
+        }));
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+
+        // 执行
+        CompletableFuture<List<String>> second = CompletableFuture.supplyAsync(() -> cache.get("a1", "tree", () -> load("v2")));
+        Thread.sleep(50);
+        release.countDown();
+
+        // 验证
+        assertEquals(List.of("v1"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("v1"), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get(), "并发请求只应构建一次");
+    }
+}
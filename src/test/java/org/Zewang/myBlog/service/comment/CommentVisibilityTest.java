@@ -0,0 +1,110 @@
+package org.Zewang.myBlog.service.comment;
+
+import org.Zewang.myBlog.dto.CommentNodeDTO;
+import org.Zewang.myBlog.model.Comment;
+import org.Zewang.myBlog.repository.CommentRepository;
+import org.Zewang.myBlog.service.comment.thread.CommentThreadBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("评论可见性规则测试")
+class CommentVisibilityTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final List<Comment> comments = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite::memory:", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE comments (id TEXT PRIMARY KEY, article_id TEXT, parent_id TEXT, "
+            + "status INTEGER, create_time TIMESTAMP)");
+
+        // 准备：d1(已删除) -> d2(已删除) -> n1(正常)；x1(已删除) -> x2(已删除)；n2(正常)
+        insert("d1", null, 0, Comment.STATUS_DELETED);
+        insert("d2", "d1", 1, Comment.STATUS_DELETED);
+        insert("n1", "d2", 2, Comment.STATUS_NORMAL);
+        insert("x1", null, 3, Comment.STATUS_DELETED);
+        insert("x2", "x1", 4, Comment.STATUS_DELETED);
+        insert("n2", null, 5, Comment.STATUS_NORMAL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    private void insert(String id, String parentId, int minute, int status) {
+        jdbcTemplate.update("INSERT INTO comments VALUES (?, 'a1', ?, ?, ?)",
+            id, parentId, status, BASE.plusMinutes(minute));
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setArticleId("a1");
+        comment.setParentId(parentId);
+        comment.setStatus(status);
+        comment.setCreateTime(BASE.plusMinutes(minute));
+        comments.add(comment);
+    }
+
+    /**
+     * 分页接口使用的可见性条件
+     */
+    private List<String> pagedChildren(String parentId) {
+        String parent = parentId == null ? "c.parent_id IS NULL" : "c.parent_id = '" + parentId + "'";
+        return jdbcTemplate.queryForList("SELECT c.id FROM comments c WHERE c.article_id = 'a1' AND " + parent
+            + " AND " + CommentRepository.VISIBLE + " ORDER BY c.create_time DESC, c.id DESC", String.class);
+    }
+
+    private static List<String> ids(List<CommentNodeDTO> nodes) {
+        return nodes.stream().map(CommentNodeDTO::id).toList();
+    }
+
+    @Test
+    @DisplayName("已删除 -> 已删除 -> 正常：分页查询与整棵树保留相同的占位节点")
+    void visibleRule_ShouldMatchThreadBuilder() {
+        // 执行
+        List<CommentNodeDTO> tree = CommentThreadBuilder.build(comments, 32, 200);
+        CommentNodeDTO d1 = tree.stream().filter(node -> node.id().equals("d1")).findFirst().orElseThrow();
+        CommentNodeDTO d2 = d1.replies().get(0);
+
+        // 验证
+        assertEquals(List.of("n2", "d1"), ids(tree));
+        assertEquals(ids(tree), pagedChildren(null));
+        assertEquals(ids(d1.replies()), pagedChildren("d1"));
+        assertEquals(ids(d2.replies()), pagedChildren("d2"));
+        assertEquals(List.of("n1"), pagedChildren("d2"));
+        assertTrue(pagedChildren("x1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("待审核的评论不可见，已删除评论的递归不经过待审核的评论")
+    void visibleRule_ShouldHidePendingComments() {
+        // 准备：p1(待审核) -> n3(正常)；y1(已删除) -> p2(待审核) -> n4(正常)
+        insert("p1", null, 6, Comment.STATUS_PENDING);
+        insert("n3", "p1", 7, Comment.STATUS_NORMAL);
+        insert("y1", null, 8, Comment.STATUS_DELETED);
+        insert("p2", "y1", 9, Comment.STATUS_PENDING);
+        insert("n4", "p2", 10, Comment.STATUS_NORMAL);
+
+        // 执行
+        List<CommentNodeDTO> tree = CommentThreadBuilder.build(comments, 32, 200);
+
+        // 验证
+        assertEquals(List.of("n2", "d1"), ids(tree));
+        assertEquals(ids(tree), pagedChildren(null));
+        assertTrue(pagedChildren("y1").isEmpty());
+    }
+}
@@ -0,0 +1,183 @@
+package org.Zewang.myBlog.service.like;
+
+import org.Zewang.myBlog.model.SystemMarker;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.repository.SystemMarkerRepository;
+import org.Zewang.myBlog.service.like.counter.LikeCountBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("点赞数写缓冲测试")
+class LikeCountBufferTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private SystemMarkerRepository systemMarkerRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private LikeCountBuffer buffer;
+
+    // 事务模板直接执行回调
+    private final Answer<Void> runInTransaction = invocation -> {
+        Consumer<TransactionStatus> action = invocation.getArgument(0);
+        action.accept(null);
+        return null;
+    };
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(runInTransaction).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(null);
+        });
+        buffer = new LikeCountBuffer(articleRepository, systemMarkerRepository, transactionTemplate, cacheManager);
+    }
+
+    @Test
+    @DisplayName("合并增量 - 每篇文章只写回一次")
+    void flush_ShouldMergeDeltasPerArticle() {
+        // 准备
+        buffer.add("1", 1);
+        buffer.add("1", 1);
+        buffer.add("1", -1);
+        buffer.add("2", 1);
+
+        // 执行
+        int flushed = buffer.flush();
+
+        // 验证
+        assertEquals(2, flushed, "应写回两篇文章");
+        verify(articleRepository, times(1)).addLikeCount("1", 1L);
+        verify(articleRepository, times(1)).addLikeCount("2", 1L);
+        assertEquals(0, buffer.flush(), "增量写回后缓冲区应为空");
+    }
+
+    @Test
+    @DisplayName("增量相互抵消 - 不访问数据库")
+    void flush_WhenDeltasCancelOut_ShouldSkipUpdate() {
+        // 准备
+        buffer.add("1", 1);
+        buffer.add("1", -1);
+
+        // 执行
+        int flushed = buffer.flush();
+
+        // 验证
+        assertEquals(0, flushed, "没有需要写回的文章");
+        verify(articleRepository, never()).addLikeCount(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("写回失败 - 保留增量并在下次重试")
+    void flush_WhenUpdateFails_ShouldRetainDeltas() {
+        // 准备
+        buffer.add("1", 2);
+        doThrow(new RuntimeException("database is locked"))
+            .doAnswer(runInTransaction)
+            .when(transactionTemplate).executeWithoutResult(any());
+
+        // 执行
+        assertEquals(0, buffer.flush(), "失败时不应计为写回");
+        buffer.add("1", 1);
+        int flushed = buffer.flush();
+
+        // 验证
+        assertEquals(1, flushed, "重试时应写回");
+        verify(articleRepository, times(1)).addLikeCount("1", 3L);
+    }
+
+    @Test
+    @DisplayName("启动时重新统计 - 先写回增量，统计期间到达的增量已包含在结果中")
+    void recalculate_ShouldFlushThenRecountAndDropCapturedDeltas() {
+        // 准备
+        buffer.add("1", 1);
+        when(articleRepository.recalculateLikeCounts()).thenReturn(2);
+        // 写回之后、统计之前提交的点赞
+        doAnswer(invocation -> {
+            buffer.add("2", 1);
+            return 1;
+        }).when(articleRepository).addLikeCount("1", 1L);
+
+        // 执行
+        buffer.recalculate();
+
+        // 验证
+        verify(articleRepository, times(1)).addLikeCount("1", 1L);
+        verify(articleRepository, times(1)).recalculateLikeCounts();
+        assertEquals(0, buffer.flush(), "统计前到达的增量已包含在结果中，不应再写回");
+    }
+
+    @Test
+    @DisplayName("上次正常停机 - 跳过重新统计并删除标记")
+    void recalculate_AfterCleanShutdown_ShouldSkipRecount() {
+        // 准备
+        when(systemMarkerRepository.existsById(anyString())).thenReturn(true);
+
+        // 执行
+        buffer.recalculate();
+
+        // 验证
+        verify(systemMarkerRepository, times(1)).deleteById(anyString());
+        verify(articleRepository, never()).recalculateLikeCounts();
+    }
+
+    @Test
+    @DisplayName("统计失败 - 取出的增量放回缓冲区")
+    void recalculate_WhenRecountFails_ShouldRestoreDeltas() {
+        // 准备
+        buffer.add("1", 1);
+        doAnswer(invocation -> {
+            buffer.add("2", 1);
+            return 1;
+        }).when(articleRepository).addLikeCount("1", 1L);
+        when(articleRepository.recalculateLikeCounts()).thenThrow(new QueryTimeoutException("database is locked"));
+
+        // 执行
+        buffer.recalculate();
+
+        // 验证
+        assertEquals(1, buffer.flush(), "统计失败时取出的增量应保留");
+        verify(articleRepository, times(1)).addLikeCount("2", 1L);
+    }
+
+    @Test
+    @DisplayName("停机 - 增量全部写回后记录标记")
+    void shutdown_WhenFlushed_ShouldSaveMarker() {
+        // 准备
+        buffer.add("1", 1);
+
+        // 执行
+        buffer.shutdown();
+
+        // 验证
+        verify(articleRepository, times(1)).addLikeCount("1", 1L);
+        verify(systemMarkerRepository, times(1)).save(any(SystemMarker.class));
+    }
+}
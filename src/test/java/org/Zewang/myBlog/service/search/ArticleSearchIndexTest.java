@@ -0,0 +1,106 @@
+package org.Zewang.myBlog.service.search;
+
+import org.Zewang.myBlog.model.Article;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.service.search.index.ArticleSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("文章倒排索引测试")
+class ArticleSearchIndexTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    private ArticleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // 准备
+        Article older = new Article()
+            .setId("1")
+            .setTitle("Spring Boot 入门")
+            .setContent("使用云计算平台部署应用")
+            .setCreateTime(LocalDateTime.now().minusDays(1));
+        Article newer = new Article()
+            .setId("2")
+            .setTitle("JavaScript 笔记")
+            .setContent("前端开发与云服务")
+            .setCreateTime(LocalDateTime.now());
+        when(articleRepository.findAll()).thenReturn(List.of(older, newer));
+
+        index = new ArticleSearchIndex(articleRepository);
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("中文关键词 - 按二元组匹配")
+    void search_WithChineseKeyword_ShouldMatchBigrams() {
+        assertEquals(List.of("1"), index.search("云计算"), "应只命中包含“云计算”的文章");
+        assertTrue(index.search("计云").isEmpty(), "字序不同的二元组不应命中");
+    }
+
+    @Test
+    @DisplayName("中文单字 - 命中所有包含该字的文章并按时间倒序")
+    void search_WithSingleChineseChar_ShouldMatchAll() {
+        assertEquals(List.of("2", "1"), index.search("云"), "应按创建时间倒序返回");
+    }
+
+    @Test
+    @DisplayName("英文关键词 - 忽略大小写并支持前缀")
+    void search_WithEnglishPrefix_ShouldMatch() {
+        assertEquals(List.of("1"), index.search("SPRING"), "大小写不敏感");
+        assertEquals(List.of("2"), index.search("java"), "前缀应命中 JavaScript");
+        assertEquals(List.of("1"), index.search("boot 部署"), "多个词项应取交集");
+    }
+
+    @Test
+    @DisplayName("增量更新和删除")
+    void indexAndRemove_ShouldUpdatePostings() {
+        // 执行
+        index.index(new Article().setId("1").setTitle("Redis 缓存").setContent("内容已更新"));
+
+        // 验证
+        assertTrue(index.search("spring").isEmpty(), "旧词项应被移除");
+        assertEquals(List.of("1"), index.search("redis"), "新词项应可检索");
+
+        index.remove("1");
+        assertTrue(index.search("redis").isEmpty(), "删除后不应再命中");
+        assertEquals(1, index.size(), "索引中应只剩一篇文章");
+    }
+
+    @Test
+    @DisplayName("事务中修改索引 - 提交后才生效，回滚时不生效")
+    void indexAndRemove_InTransaction_ShouldApplyAfterCommit() {
+        // 准备
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // 执行
+            index.remove("1");
+            index.index(new Article().setId("2").setTitle("Redis 缓存").setContent("内容已更新"));
+
+            // 验证
+            assertEquals(List.of("1"), index.search("spring"), "提交前删除不应生效");
+            assertTrue(index.search("redis").isEmpty(), "提交前更新不应生效");
+
+            // 只对第一个（删除）模拟提交，第二个（更新）相当于回滚
+            TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+            assertTrue(index.search("spring").isEmpty(), "提交后删除应生效");
+            assertEquals(List.of("2"), index.search("java"), "回滚的更新不应修改索引");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
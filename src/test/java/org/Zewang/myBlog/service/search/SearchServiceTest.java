@@ -0,0 +1,94 @@
+package org.Zewang.myBlog.service.search;
+
+import org.Zewang.myBlog.model.Article;
+import org.Zewang.myBlog.repository.ArticleFullTextRepository;
+import org.Zewang.myBlog.repository.ArticleRepository;
+import org.Zewang.myBlog.service.search.impl.SearchServiceImpl;
+import org.Zewang.myBlog.service.search.index.ArticleSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("搜索服务测试")
+class SearchServiceTest {
+
+    // SQLite 3.32 起单条语句默认最多绑定 32766 个参数
+    private static final int SQLITE_MAX_VARIABLE_NUMBER = 32766;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private ArticleSearchIndex articleSearchIndex;
+
+    @Mock
+    private ArticleFullTextRepository articleFullTextRepository;
+
+    @InjectMocks
+    private SearchServiceImpl searchService;
+
+    private static List<String> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "a" + i).toList();
+    }
+
+    @Test
+    @DisplayName("命中数超过 SQLite 参数上限 - 只绑定本页的文章ID")
+    @SuppressWarnings("unchecked")
+    void quickSearch_WhenHitsExceedParameterLimit_ShouldBindOnlyPageIds() {
+        // 准备
+        List<String> hits = ids(SQLITE_MAX_VARIABLE_NUMBER + 1000);
+        List<String> sorted = new ArrayList<>(hits);
+        sorted.add(0, "not-a-hit");
+        when(articleSearchIndex.search("java")).thenReturn(hits);
+        when(articleRepository.findIds(any(), any(Sort.class))).thenReturn(sorted);
+        when(articleRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<String> pageIds = invocation.getArgument(0);
+            return pageIds.stream().map(id -> new Article().setId(id)).toList();
+        });
+
+        // 执行
+        Page<Article> page = searchService.quickSearch("java", 2, 10);
+
+        // 验证
+        ArgumentCaptor<List<String>> bound = ArgumentCaptor.forClass(List.class);
+        verify(articleRepository).findAllById(bound.capture());
+        assertEquals(ids(20).subList(10, 20), bound.getValue());
+        assertEquals(ids(20).subList(10, 20), page.getContent().stream().map(Article::getId).toList());
+        assertEquals(hits.size(), page.getTotalElements());
+        verify(articleRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("命中数不多 - ID 与其他条件在同一条查询中过滤")
+    @SuppressWarnings("unchecked")
+    void quickSearch_WhenFewHits_ShouldQueryWithIdCondition() {
+        // 准备
+        when(articleSearchIndex.search("java")).thenReturn(ids(3));
+        when(articleRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        // 执行
+        searchService.quickSearch("java", 1, 10);
+
+        // 验证
+        verify(articleRepository).findAll(any(Specification.class), any(Pageable.class));
+        verify(articleRepository, never()).findIds(any(), any(Sort.class));
+    }
+}
@@ -0,0 +1,97 @@
+package org.Zewang.myBlog.service.user;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.Zewang.myBlog.config.CacheConfig;
+import org.Zewang.myBlog.model.User;
+import org.Zewang.myBlog.repository.UserRepository;
+import org.Zewang.myBlog.service.user.impl.UserServiceImpl;
+import org.Zewang.myBlog.service.user.token.TokenVersionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("认证用户信息缓存测试")
+class UserDetailsCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    private UserServiceImpl userService;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.USER_DETAILS, Caffeine.newBuilder().maximumSize(10).build());
+        userService = new UserServiceImpl(passwordEncoder, userRepository, cacheManager, tokenVersionRegistry);
+
+        alice = new User();
+        alice.setId("u1");
+        alice.setUsername("alice");
+        alice.setPassword("hash");
+        alice.setRole("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("重复加载只查询一次数据库，清除凭据不影响缓存")
+    void loadUserByUsername_ShouldHitCache() {
+        // 准备
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+
+        // 执行
+        UserDetails first = userService.loadUserByUsername("alice");
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = userService.loadUserByUsername("alice");
+
+        // 验证
+        verify(userRepository, times(1)).findByUsername("alice");
+        assertEquals("hash", second.getPassword(), "缓存中的密码不应被清除");
+        assertTrue(second.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+    }
+
+    @Test
+    @DisplayName("更新和删除用户后重新查询数据库并使令牌失效，不存在的用户不缓存")
+    void updateAndDelete_ShouldEvict() {
+        // 准备
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        when(userRepository.findById("u1")).thenReturn(Optional.of(alice));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(passwordEncoder.encode("hash")).thenReturn("hash2");
+        userService.loadUserByUsername("alice");
+
+        // 执行
+        userService.updateUser(alice);
+        userService.loadUserByUsername("alice");
+        userService.deleteUser("u1");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
+
+        // 验证
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("alice"));
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("alice"));
+        verify(userRepository, times(4)).findByUsername("alice");
+        verify(tokenVersionRegistry).register("u1", 1);
+        verify(tokenVersionRegistry).remove("u1");
+    }
+}
@@ -0,0 +1,203 @@
+package org.Zewang.myBlog.service.write;
+
+import org.Zewang.myBlog.common.exception.BusinessException;
+import org.Zewang.myBlog.common.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("写入管道测试")
+class WritePipelineTest {
+
+    /**
+     * 只统计提交和回滚次数的事务管理器，已有事务时加入该事务
+     */
+    private static class CountingTransactionManager extends AbstractPlatformTransactionManager {
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+    private WritePipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    private WritePipeline start(int maxBatchSize, int queueCapacity, long timeoutMillis) {
+        // 批窗口足够长，批次只在凑满 maxBatchSize 时提交，结果不受线程调度影响
+        pipeline = new WritePipeline(transactionManager, true, 5000, maxBatchSize, queueCapacity, timeoutMillis);
+        pipeline.start();
+        return pipeline;
+    }
+
+    /**
+     * 在新线程中提交写操作，等到该线程开始等待结果（即已进入队列）后返回
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> mutation) throws InterruptedException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Thread caller = new Thread(() -> {
+            try {
+                result.complete(pipeline.execute(mutation));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        caller.start();
+        while (caller.getState() != Thread.State.TIMED_WAITING && !result.isDone()) {
+            Thread.sleep(1);
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("同一批的写操作在一个事务中提交")
+    void execute_ShouldGroupCommitBatch() throws Exception {
+        // 准备
+        start(3, 16, 5000);
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        // 执行
+        CompletableFuture<Integer> first = submit(() -> { threads.add(Thread.currentThread().getName()); return 1; });
+        CompletableFuture<Integer> second = submit(() -> { threads.add(Thread.currentThread().getName()); return 2; });
+        CompletableFuture<Integer> third = submit(() -> { threads.add(Thread.currentThread().getName()); return 3; });
+
+        // 验证
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, second.get(5, TimeUnit.SECONDS));
+        assertEquals(3, third.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("write-pipeline", "write-pipeline", "write-pipeline"), threads);
+        assertEquals(1, transactionManager.commits.get());
+        assertEquals(1L, pipeline.stats().get("batchCount"));
+        assertEquals(3L, pipeline.stats().get("largestBatch"));
+    }
+
+    @Test
+    @DisplayName("批内写操作失败时只有它失败，其余写操作重新提交")
+    void execute_WhenMutationFails_ShouldRetryOthers() throws Exception {
+        // 准备
+        start(3, 16, 5000);
+        AtomicInteger firstRuns = new AtomicInteger();
+
+        // 执行
+        CompletableFuture<Integer> first = submit(firstRuns::incrementAndGet);
+        CompletableFuture<Object> failing = submit(() -> { throw new BusinessException("文章不存在"); });
+        CompletableFuture<Integer> third = submit(() -> 3);
+
+        // 验证
+        assertEquals(2, first.get(5, TimeUnit.SECONDS)); // 回滚后重新执行了一次
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertEquals("文章不存在", error.getCause().getMessage());
+        assertEquals(3, third.get(5, TimeUnit.SECONDS));
+        assertEquals(1, transactionManager.rollbacks.get());
+        assertEquals(2, transactionManager.commits.get());
+        assertEquals(1L, pipeline.stats().get("failedCount"));
+    }
+
+    @Test
+    @DisplayName("写操作抛出 Error 时该批调用方失败，写线程继续处理")
+    void execute_WhenMutationThrowsError_ShouldFailBatchAndKeepRunning() throws Exception {
+        // 准备
+        start(2, 16, 5000);
+
+        // 执行
+        CompletableFuture<Integer> first = submit(() -> 1);
+        CompletableFuture<Object> broken = submit(() -> { throw new AssertionError("boom"); });
+
+        // 验证
+        ExecutionException error = assertThrows(ExecutionException.class, () -> broken.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AssertionError.class, error.getCause().getCause());
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, transactionManager.rollbacks.get());
+
+        CompletableFuture<Integer> third = submit(() -> 3);
+        CompletableFuture<Integer> fourth = submit(() -> 4);
+        assertEquals(3, third.get(5, TimeUnit.SECONDS));
+        assertEquals(4, fourth.get(5, TimeUnit.SECONDS));
+        assertEquals(true, pipeline.stats().get("enabled"));
+    }
+
+    @Test
+    @DisplayName("队列已满时拒绝写操作")
+    void execute_WhenQueueFull_ShouldReject() throws Exception {
+        // 准备
+        start(1, 1, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocking = submit(() -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> queued = submit(() -> 2);
+
+        // 执行 & 验证
+        assertThrows(TooManyRequestsException.class, () -> pipeline.execute(() -> 3));
+        assertEquals(1L, pipeline.stats().get("rejectedCount"));
+        release.countDown();
+        assertTrue(blocking.get(5, TimeUnit.SECONDS));
+        assertEquals(2, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("已处于事务中时在当前线程直接执行")
+    void execute_InsideTransaction_ShouldRunInline() {
+        // 准备
+        start(3, 16, 5000);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        // 执行
+        String thread = template.execute(status -> pipeline.execute(() -> Thread.currentThread().getName()));
+
+        // 验证
+        assertEquals(Thread.currentThread().getName(), thread);
+        assertEquals(1, transactionManager.commits.get());
+        assertEquals(0L, pipeline.stats().get("batchCount"));
+    }
+}
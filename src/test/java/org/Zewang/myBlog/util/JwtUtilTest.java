@@ -0,0 +1,85 @@
+package org.Zewang.myBlog.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.Zewang.myBlog.common.security.TokenClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JWT工具类测试")
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+    private final UserDetails alice = new User("alice", "x", List.of());
+
+    private static JwtUtil create(long expirationSeconds) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", "testSecretKey12345TestSecretKey12345TestSecretKey12345");
+        ReflectionTestUtils.setField(util, "expiration", expirationSeconds);
+        ReflectionTestUtils.setField(util, "verifiedCacheSize", 16);
+        util.init();
+        return util;
+    }
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = create(3600);
+    }
+
+    @Test
+    @DisplayName("已验证的令牌再次解析时直接命中缓存")
+    void parseToken_ShouldReuseVerifiedClaims() {
+        // 准备
+        String token = jwtUtil.generateToken(alice);
+
+        // 执行
+        TokenClaims first = jwtUtil.parseToken(token);
+        TokenClaims second = jwtUtil.parseToken(token);
+
+        // 验证
+        assertEquals("alice", first.subject());
+        assertSame(first, second, "第二次解析应返回缓存的声明");
+        assertTrue(jwtUtil.validateToken(token, alice));
+        assertFalse(jwtUtil.validateToken(first, new User("bob", "x", List.of())));
+    }
+
+    @Test
+    @DisplayName("按用户生成的令牌携带用户ID、角色和令牌版本")
+    void generateToken_ForUser_ShouldCarryClaims() {
+        // 准备
+        org.Zewang.myBlog.model.User user = new org.Zewang.myBlog.model.User();
+        user.setId("u1");
+        user.setUsername("alice");
+        user.setRole("ROLE_ADMIN");
+        user.setTokenVersion(3);
+
+        // 执行
+        TokenClaims claims = jwtUtil.parseToken(jwtUtil.generateToken(user));
+
+        // 验证
+        assertEquals(new TokenClaims("alice", "u1", "ROLE_ADMIN", 3, claims.expiresAt()), claims);
+        assertNotNull(claims.expiresAt());
+    }
+
+    @Test
+    @DisplayName("签名被篡改或已过期的令牌验证失败")
+    void parseToken_ShouldRejectTamperedOrExpiredToken() {
+        // 准备
+        String token = jwtUtil.generateToken(alice);
+        String tampered = token.substring(0, token.length() - 2)
+            + (token.endsWith("AA") ? "BB" : "AA");
+        String expired = create(-1).generateToken(alice);
+
+        // 执行 & 验证
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(tampered));
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseToken(expired));
+    }
+}